@@ -1,6 +1,8 @@
 package com.crimemanagement;
 
 import com.crimemanagement.config.DatabaseConfig;
+import com.crimemanagement.service.CrimeService;
+import com.crimemanagement.service.SharedServiceHolder;
 import com.crimemanagement.ui.MenuManager;
 
 public class CrimeManagementApplication {
@@ -19,6 +21,12 @@ public class CrimeManagementApplication {
             System.err.println("Fatal error starting application: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            // Stop background watchers before the connection goes away
+            CrimeService crimeService = SharedServiceHolder.getCrimeService();
+            if (crimeService != null) {
+                crimeService.shutdown();
+            }
+            
             // Cleanup database connection
             DatabaseConfig.disconnect();
         }
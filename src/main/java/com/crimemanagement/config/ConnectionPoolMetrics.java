@@ -0,0 +1,115 @@
+package com.crimemanagement.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClearedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counters for the driver's connection pool: how many threads are waiting for a
+// connection (the wait queue), how many connections are checked out or open, and
+// how long a checkout takes. Listener callbacks run on the requesting threads.
+public class ConnectionPoolMetrics implements ConnectionPoolListener {
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger maxWaiting = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger maxInUse = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong checkoutFailures = new AtomicLong();
+    private final AtomicLong checkoutMicros = new AtomicLong();
+    private final AtomicLong maxCheckoutMicros = new AtomicLong();
+    private final AtomicLong poolClears = new AtomicLong();
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        maxWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        long micros = event.getElapsedTime(TimeUnit.MICROSECONDS);
+        checkouts.incrementAndGet();
+        checkoutMicros.addAndGet(micros);
+        maxCheckoutMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        checkoutFailures.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        inUse.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionPoolCleared(ConnectionPoolClearedEvent event) {
+        poolClears.incrementAndGet();
+    }
+
+    // Threads currently waiting for a connection
+    public int getWaitQueueDepth() {
+        return waiting.get();
+    }
+
+    public int getMaxWaitQueueDepth() {
+        return maxWaiting.get();
+    }
+
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    public int getMaxInUse() {
+        return maxInUse.get();
+    }
+
+    public int getOpen() {
+        return open.get();
+    }
+
+    public long getCheckouts() {
+        return checkouts.get();
+    }
+
+    // Checkouts that timed out in the wait queue or could not open a connection
+    public long getCheckoutFailures() {
+        return checkoutFailures.get();
+    }
+
+    public long getAverageCheckoutMicros() {
+        long count = checkouts.get();
+        return count == 0 ? 0 : checkoutMicros.get() / count;
+    }
+
+    public long getMaxCheckoutMicros() {
+        return maxCheckoutMicros.get();
+    }
+
+    // Times the pool was invalidated, e.g. after a server error
+    public long getPoolClears() {
+        return poolClears.get();
+    }
+}
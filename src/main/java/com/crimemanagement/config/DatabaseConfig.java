@@ -1,22 +1,37 @@
 package com.crimemanagement.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.connection.ConnectionPoolSettings;
 import org.bson.Document;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
 public class DatabaseConfig {
-    private static final String CONNECTION_STRING = "mongodb://localhost:27017";
-    private static final String DATABASE_NAME = "crime_db";
+    private static final String DEFAULT_CONNECTION_STRING = "mongodb://localhost:27017";
+    private static final String DEFAULT_DATABASE_NAME = "crime_db";
+    // crime.mongo.* settings not given as system properties are read from here
+    private static final Properties FILE_SETTINGS = loadFileSettings("application.properties");
     
+    private static final ConnectionPoolMetrics POOL_METRICS = new ConnectionPoolMetrics();
     private static MongoClient mongoClient;
     private static MongoDatabase database;
     
     public static void connect() {
         try {
-            mongoClient = MongoClients.create(CONNECTION_STRING);
-            database = mongoClient.getDatabase(DATABASE_NAME);
+            mongoClient = MongoClients.create(clientSettings());
+            database = mongoClient.getDatabase(setting("crime.mongo.database", DEFAULT_DATABASE_NAME));
             System.out.println("Connected to MongoDB successfully!");
             
             // Initialize collections if they don't exist
@@ -27,6 +42,144 @@ public class DatabaseConfig {
         }
     }
     
+    // Settings from crime.mongo.* (system property, else application.properties); anything
+    // not configured keeps the connection string's value or the driver default
+    static MongoClientSettings clientSettings() {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(setting("crime.mongo.uri", DEFAULT_CONNECTION_STRING)))
+                .applicationName("crime-record-system");
+        
+        Integer minSize = intSetting("crime.mongo.pool.minSize");
+        Integer maxSize = intSetting("crime.mongo.pool.maxSize");
+        Long maxWaitMs = longSetting("crime.mongo.pool.maxWaitMs");
+        Long maxIdleMs = longSetting("crime.mongo.pool.maxIdleMs");
+        builder.applyToConnectionPoolSettings(pool -> {
+            if (maxSize != null) {
+                pool.maxSize(maxSize);
+            }
+            if (minSize != null) {
+                pool.minSize(minSize);
+            }
+            if (maxWaitMs != null) {
+                pool.maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS);
+            }
+            if (maxIdleMs != null) {
+                pool.maxConnectionIdleTime(maxIdleMs, TimeUnit.MILLISECONDS);
+            }
+            pool.addConnectionPoolListener(POOL_METRICS);
+        });
+        
+        Integer connectTimeoutMs = intSetting("crime.mongo.connectTimeoutMs");
+        Integer socketTimeoutMs = intSetting("crime.mongo.socketTimeoutMs");
+        builder.applyToSocketSettings(socket -> {
+            if (connectTimeoutMs != null) {
+                socket.connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            if (socketTimeoutMs != null) {
+                socket.readTimeout(socketTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        });
+        Long serverSelectionTimeoutMs = longSetting("crime.mongo.serverSelectionTimeoutMs");
+        if (serverSelectionTimeoutMs != null) {
+            builder.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(serverSelectionTimeoutMs, TimeUnit.MILLISECONDS));
+        }
+        
+        String compressors = setting("crime.mongo.compressors", null);
+        if (compressors != null) {
+            builder.compressorList(compressors(compressors));
+        }
+        String readPreference = setting("crime.mongo.readPreference", null);
+        if (readPreference != null && !readPreference.trim().isEmpty()) {
+            builder.readPreference(ReadPreference.valueOf(readPreference.trim()));
+        }
+        
+        MongoClientSettings settings = builder.build();
+        ConnectionPoolSettings pool = settings.getConnectionPoolSettings();
+        System.out.println("MongoDB client: pool " + pool.getMinSize() + "-" + pool.getMaxSize()
+                + ", wait queue timeout " + pool.getMaxWaitTime(TimeUnit.MILLISECONDS) + " ms, read preference "
+                + settings.getReadPreference().getName() + ", compressors " + settings.getCompressorList());
+        return settings;
+    }
+    
+    // Names in order of preference; the server picks the first it supports. snappy and zstd
+    // need their native libraries on the classpath and are skipped when those are missing.
+    private static List<MongoCompressor> compressors(String names) {
+        List<MongoCompressor> list = new ArrayList<>();
+        for (String name : names.split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "":
+                    break;
+                case "snappy":
+                    if (onClasspath("org.xerial.snappy.Snappy", name)) {
+                        list.add(MongoCompressor.createSnappyCompressor());
+                    }
+                    break;
+                case "zstd":
+                    if (onClasspath("com.github.luben.zstd.Zstd", name)) {
+                        list.add(MongoCompressor.createZstdCompressor());
+                    }
+                    break;
+                case "zlib":
+                    list.add(MongoCompressor.createZlibCompressor());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown compressor: " + name.trim());
+            }
+        }
+        return list;
+    }
+    
+    private static boolean onClasspath(String className, String compressor) {
+        try {
+            Class.forName(className, false, DatabaseConfig.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            System.err.println("Skipping " + compressor.trim() + " compression: " + className + " is not on the classpath");
+            return false;
+        }
+    }
+    
+    private static String setting(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = FILE_SETTINGS.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+    
+    private static Integer intSetting(String key) {
+        Long value = longSetting(key);
+        return value != null ? Math.toIntExact(value) : null;
+    }
+    
+    private static Long longSetting(String key) {
+        String value = setting(key, null);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+    
+    private static Properties loadFileSettings(String resource) {
+        Properties properties = new Properties();
+        try (InputStream in = DatabaseConfig.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read " + resource + ": " + e.getMessage());
+        }
+        return properties;
+    }
+    
+    public static ConnectionPoolMetrics getPoolMetrics() {
+        return POOL_METRICS;
+    }
+    
     public static MongoDatabase getDatabase() {
         if (database == null) {
             connect();
@@ -54,6 +207,14 @@ public class DatabaseConfig {
             users.insertOne(adminUser);
             System.out.println("Default admin user created (username: admin, password: admin123)");
         }
+
+        if (Boolean.parseBoolean(System.getProperty("crime.db.manageIndexes", "true"))) {
+            try {
+                IndexManager.ensureIndexes(database);
+            } catch (Exception e) {
+                System.err.println("Index check failed: " + e.getMessage());
+            }
+        }
     }
     
     public static void disconnect() {
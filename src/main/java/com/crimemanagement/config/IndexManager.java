@@ -0,0 +1,211 @@
+package com.crimemanagement.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.mongodb.client.model.Filters.*;
+
+// The indexes the application's queries rely on. At startup, missing ones are
+// created (existing ones are left alone), the set is verified, and every known
+// query shape is explained so any that still needs a collection scan is reported.
+public class IndexManager {
+    // Case-insensitive comparison; queries must pass the same collation to use these indexes
+    public static final Collation CASE_INSENSITIVE = Collation.builder()
+            .locale("en")
+            .collationStrength(CollationStrength.SECONDARY)
+            .build();
+
+    private static final List<IndexSpec> REQUIRED = List.of(
+            new IndexSpec("crimes", "name_ci", new Document("name", 1), CASE_INSENSITIVE),
+            new IndexSpec("crimes", "city_ci", new Document("city", 1), CASE_INSENSITIVE),
+            new IndexSpec("crimes", "crimeType_ci", new Document("crimeType", 1), CASE_INSENSITIVE),
+            new IndexSpec("crimes", "city_crimeType_createdAt_ci",
+                    new Document("city", 1).append("crimeType", 1).append("createdAt", -1), CASE_INSENSITIVE),
+            new IndexSpec("crimes", "createdAt", new Document("createdAt", -1), null),
+            new IndexSpec("crimes", "updatedAt", new Document("updatedAt", 1), null),
+            new IndexSpec("crimes", "details_text", new Document("details", "text"), null),
+            new IndexSpec("users", "email", new Document("email", 1), null));
+
+    public static void ensureIndexes(MongoDatabase database) {
+        int created = 0;
+        for (IndexSpec spec : REQUIRED) {
+            MongoCollection<Document> collection = database.getCollection(spec.collection);
+            if (findMatching(collection, spec) != null) {
+                continue;
+            }
+            try {
+                IndexOptions options = new IndexOptions().name(spec.name);
+                if (spec.collation != null) {
+                    options.collation(spec.collation);
+                }
+                collection.createIndex(spec.keys, options);
+                created++;
+            } catch (MongoException e) {
+                System.err.println("Could not create index " + spec + ": " + e.getMessage());
+            }
+        }
+
+        List<IndexSpec> missing = new ArrayList<>();
+        for (IndexSpec spec : REQUIRED) {
+            if (findMatching(database.getCollection(spec.collection), spec) == null) {
+                missing.add(spec);
+            }
+        }
+        System.out.println("Indexes verified: " + (REQUIRED.size() - missing.size()) + "/" + REQUIRED.size()
+                + " present (" + created + " created)");
+        for (IndexSpec spec : missing) {
+            System.err.println("Missing index " + spec);
+        }
+
+        reportCollectionScans(database);
+    }
+
+    // An existing index with the spec's keys and collation, under any name
+    private static Document findMatching(MongoCollection<Document> collection, IndexSpec spec) {
+        for (Document index : collection.listIndexes()) {
+            if (spec.matches(index)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    // Explains each query shape the application issues and reports the ones planned as COLLSCAN
+    private static void reportCollectionScans(MongoDatabase database) {
+        List<QueryShape> shapes = List.of(
+                new QueryShape("crimes by name (exact)", "crimes", eq("name", "x"), null, CASE_INSENSITIVE),
+                new QueryShape("crimes by city (prefix)", "crimes", and(gte("city", "x"), lt("city", "x\uffff")), null, CASE_INSENSITIVE),
+                new QueryShape("crimes by crime type (exact)", "crimes", eq("crimeType", "x"), null, CASE_INSENSITIVE),
+                new QueryShape("crimes by city and type, newest first", "crimes",
+                        and(eq("city", "x"), eq("crimeType", "x")), new Document("createdAt", -1), CASE_INSENSITIVE),
+                new QueryShape("crimes created since a date", "crimes", gte("createdAt", new Date(0)), null, null),
+                new QueryShape("crimes changed since a record snapshot", "crimes",
+                        or(gt("_id", new ObjectId()), gte("updatedAt", new Date(0))), null, null),
+                new QueryShape("details text search", "crimes", text("x"), null, null),
+                new QueryShape("crimes by name (contains)", "crimes", regex("name", "x", "i"), null, null),
+                new QueryShape("user login by email", "users", and(eq("email", "x"), eq("password", "x")), null, null));
+
+        List<String> scans = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            try {
+                if (containsStage(shape.explain(database), "COLLSCAN")) {
+                    scans.add(shape.label);
+                }
+            } catch (MongoException e) {
+                System.err.println("Could not explain '" + shape.label + "': " + e.getMessage());
+            }
+        }
+        if (scans.isEmpty()) {
+            System.out.println("All known query shapes use an index.");
+        } else {
+            System.out.println("Query shapes answered by a collection scan: " + String.join(", ", scans));
+        }
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document) {
+            for (Map.Entry<String, Object> entry : ((Document) node).entrySet()) {
+                if ("stage".equals(entry.getKey()) && stage.equals(entry.getValue())) {
+                    return true;
+                }
+                if (containsStage(entry.getValue(), stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object item : (List<?>) node) {
+                if (containsStage(item, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class IndexSpec {
+        private final String collection;
+        private final String name;
+        private final Document keys;
+        private final Collation collation;
+
+        private IndexSpec(String collection, String name, Document keys, Collation collation) {
+            this.collection = collection;
+            this.name = name;
+            this.keys = keys;
+            this.collation = collation;
+        }
+
+        private boolean matches(Document index) {
+            Document key = index.get("key", Document.class);
+            if (key == null) {
+                return false;
+            }
+            if (keys.containsValue("text")) {
+                // Text indexes are stored as {_fts, _ftsx} with the fields under "weights"
+                Document weights = index.get("weights", Document.class);
+                return key.containsKey("_fts") && weights != null && weights.keySet().containsAll(keys.keySet());
+            }
+            if (!sameKeys(key)) {
+                return false;
+            }
+            Document existing = index.get("collation", Document.class);
+            if (collation == null) {
+                return existing == null || "simple".equals(existing.getString("locale"));
+            }
+            return existing != null
+                    && collation.getLocale().equals(existing.getString("locale"))
+                    && existing.get("strength") instanceof Number
+                    && ((Number) existing.get("strength")).intValue() == collation.getStrength().getIntRepresentation();
+        }
+
+        private boolean sameKeys(Document key) {
+            if (!new ArrayList<>(key.keySet()).equals(new ArrayList<>(keys.keySet()))) {
+                return false;
+            }
+            for (String field : keys.keySet()) {
+                Object value = key.get(field);
+                if (!(value instanceof Number) || ((Number) value).intValue() != keys.getInteger(field)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return collection + "." + name + " " + keys.toJson() + (collation != null ? " (case-insensitive)" : "");
+        }
+    }
+
+    private static final class QueryShape {
+        private final String label;
+        private final String collection;
+        private final Bson filter;
+        private final Bson sort;
+        private final Collation collation;
+
+        private QueryShape(String label, String collection, Bson filter, Bson sort, Collation collation) {
+            this.label = label;
+            this.collection = collection;
+            this.filter = filter;
+            this.sort = sort;
+            this.collation = collation;
+        }
+
+        private Document explain(MongoDatabase database) {
+            return database.getCollection(collection).find(filter).sort(sort).collation(collation).explain();
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package com.crimemanagement.controller;
 
+import com.crimemanagement.config.ConnectionPoolMetrics;
+import com.crimemanagement.config.DatabaseConfig;
 import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.CrimePage;
+import com.crimemanagement.model.SearchFacets;
+import com.crimemanagement.search.CompletionTrie;
+import com.crimemanagement.service.CrimeScanner;
 import com.crimemanagement.service.CrimeService;
+import com.crimemanagement.service.MatchMode;
 import com.crimemanagement.service.SharedServiceHolder;
+import com.crimemanagement.service.SearchResultCache;
+import com.crimemanagement.service.SearchResultPage;
 import com.crimemanagement.service.SearchService;
+import com.crimemanagement.service.SortKey;
 import com.crimemanagement.service.WebSocketService;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.ClassPathResource;
@@ -14,12 +24,17 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.io.File;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 public class WebController {
@@ -36,7 +51,7 @@ public class WebController {
             this.crimeService = new CrimeService(webSocketService);
             SharedServiceHolder.setCrimeService(this.crimeService);
         }
-        this.searchService = new SearchService();
+        this.searchService = SharedServiceHolder.getSearchService();
     }
     
     @GetMapping("/photo/{id}")
@@ -89,69 +104,278 @@ public class WebController {
         return ResponseEntity.notFound().build();
     }
 
+    // Lightweight JSON counters for monitoring the in-memory caches
+    @GetMapping("/api/metrics")
+    @ResponseBody
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("records", crimeService.getTotalCrimeCount());
+        metrics.put("snapshotVersion", crimeService.getSnapshotVersion());
+        metrics.put("lookupHits", crimeService.getLookupHits());
+        metrics.put("lookupMisses", crimeService.getLookupMisses());
+        metrics.put("lookupHitRatio", crimeService.getLookupHitRatio());
+        metrics.put("loadComplete", crimeService.isLoadComplete());
+        metrics.put("loadRecordsPerSecond", crimeService.getLoader().getRecordsPerSecond());
+        metrics.put("loadWarmStart", crimeService.getLoader().wasWarmStarted());
+        metrics.put("writeBehind", crimeService.isWriteBehindEnabled());
+        metrics.put("pendingWrites", crimeService.getPendingWriteCount());
+        metrics.put("rejectedWrites", crimeService.getRejectedWriteCount());
+        metrics.put("searchIndexBitmapBytes", searchService.getIndexBitmapBytes());
+        SearchResultCache resultCache = searchService.getResultCache();
+        metrics.put("searchCacheEntries", resultCache.size());
+        metrics.put("searchCacheHits", resultCache.getHits());
+        metrics.put("searchCacheMisses", resultCache.getMisses());
+        metrics.put("searchCacheHitRatio", resultCache.getHitRatio());
+        metrics.put("searchCacheEvictions", resultCache.getEvictions());
+        metrics.put("searchCacheExpirations", resultCache.getExpirations());
+        metrics.put("searchCacheInvalidations", resultCache.getInvalidations());
+        ConnectionPoolMetrics pool = DatabaseConfig.getPoolMetrics();
+        metrics.put("mongoPoolOpen", pool.getOpen());
+        metrics.put("mongoPoolInUse", pool.getInUse());
+        metrics.put("mongoPoolMaxInUse", pool.getMaxInUse());
+        metrics.put("mongoPoolWaitQueueDepth", pool.getWaitQueueDepth());
+        metrics.put("mongoPoolMaxWaitQueueDepth", pool.getMaxWaitQueueDepth());
+        metrics.put("mongoPoolCheckouts", pool.getCheckouts());
+        metrics.put("mongoPoolCheckoutFailures", pool.getCheckoutFailures());
+        metrics.put("mongoPoolAvgCheckoutMicros", pool.getAverageCheckoutMicros());
+        metrics.put("mongoPoolMaxCheckoutMicros", pool.getMaxCheckoutMicros());
+        metrics.put("mongoPoolClears", pool.getPoolClears());
+        CrimeScanner scanner = searchService.getScanner();
+        metrics.put("scanParallelism", scanner.getParallelism());
+        metrics.put("scanQueries", scanner.getQueries());
+        metrics.put("scanRecords", scanner.getRecordsScanned());
+        metrics.put("scanRecordsPerSecond", scanner.getRecordsPerSecond());
+        metrics.put("scanLastRecordsPerSecond", scanner.getLastRecordsPerSecond());
+        return metrics;
+    }
+
+    // Top completions for the search box, most frequent first
+    @GetMapping("/api/autocomplete")
+    @ResponseBody
+    public List<Map<String, Object>> autocomplete(
+            @RequestParam(value = "field", required = false, defaultValue = "name") String field,
+            @RequestParam(value = "prefix", required = false, defaultValue = "") String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (CompletionTrie.Completion completion : searchService.autocomplete(field, prefix, Math.max(1, Math.min(limit, 50)))) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("value", completion.getValue());
+            entry.put("count", completion.getCount());
+            results.add(entry);
+        }
+        return results;
+    }
+
+    // Matching records plus counts per city, crime type and day, all from the in-memory
+    // indexes; without a search term or date filter the counts cover every record
+    @GetMapping("/api/facets")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> facets(
+            @RequestParam(value = "search", required = false) String searchTerm,
+            @RequestParam(value = "searchType", required = false, defaultValue = "name") String searchType,
+            @RequestParam(value = "match", required = false) String match,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "days", required = false) Integer days,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
+        int pageSize = Math.max(0, Math.min(limit, CrimeService.MAX_PAGE_SIZE));
+        List<Crime> crimes;
+        SearchFacets facets;
+        SearchResultPage page;
+        try {
+            page = findRecords(searchTerm, searchType, match, from, to, days, SortKey.parse(sort), offset, Math.max(1, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (page != null) {
+            crimes = page.getCrimes();
+            facets = page.getFacets();
+        } else {
+            crimes = crimeService.getCrimesPage(null, Math.max(1, pageSize)).getCrimes();
+            facets = searchService.getFacets();
+        }
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (Crime crime : crimes.subList(0, Math.min(pageSize, crimes.size()))) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("id", crime.getId());
+            record.put("name", crime.getName());
+            record.put("city", crime.getCity());
+            record.put("crimeType", crime.getCrimeType());
+            record.put("createdAt", crime.getCreatedAt() != null ? crime.getCreatedAt().toString() : null);
+            records.add(record);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", facets.getTotal());
+        response.put("byCity", facets.getByCity());
+        response.put("byCrimeType", facets.getByCrimeType());
+        response.put("byDay", facets.getByDay());
+        response.put("records", records);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/crime-records")
     public String crimeRecords(
             @RequestParam(value = "search", required = false) String searchTerm,
             @RequestParam(value = "searchType", required = false, defaultValue = "name") String searchType,
+            @RequestParam(value = "match", required = false) String match,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "days", required = false) Integer days,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
+            @RequestParam(value = "after", required = false) String afterCursor,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit,
             Model model) {
         
         List<Crime> crimes;
+        int totalRecords;
+        boolean newestFirst = true;
         
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            // Perform search based on type
-            switch (searchType.toLowerCase()) {
-                case "id":
-                    Crime crime = crimeService.getCrimeById(searchTerm);
-                    crimes = crime != null ? List.of(crime) : List.of();
-                    break;
-                case "city":
-                    crimes = searchService.searchByCity(searchTerm);
-                    break;
-                case "crimetype":
-                    crimes = searchService.searchByCrimeType(searchTerm);
-                    break;
-                case "details":
-                    crimes = searchService.searchByDetails(searchTerm);
-                    break;
-                case "name":
-                default:
-                    crimes = searchService.searchByName(searchTerm);
-                    break;
+        SearchResultPage found;
+        SortKey sortKey = null;
+        try {
+            sortKey = SortKey.parse(sort);
+            found = findRecords(searchTerm, searchType, match, from, to, days, sortKey, offset, limit);
+        } catch (IllegalArgumentException e) {
+            found = new SearchResultPage(List.of(), 0, 0, limit, null);
+            model.addAttribute("searchError", e.getMessage());
+        }
+        
+        if (found != null) {
+            boolean hasTerm = searchTerm != null && !searchTerm.trim().isEmpty();
+            model.addAttribute("searching", true);
+            if (hasTerm) {
+                model.addAttribute("searchTerm", searchTerm);
             }
-            model.addAttribute("searchTerm", searchTerm);
             model.addAttribute("searchType", searchType);
+            model.addAttribute("match", match);
+            model.addAttribute("from", from);
+            model.addAttribute("to", to);
+            model.addAttribute("days", days);
+            model.addAttribute("sort", sort);
+            
+            // One page of the sorted matches; the count and facets cover all of them
+            crimes = found.getCrimes();
+            boolean ranked = hasTerm && "details".equalsIgnoreCase(searchType) && (match == null || match.trim().isEmpty());
+            newestFirst = sortKey == SortKey.NEWEST || (!ranked && (sortKey == null || sortKey == SortKey.RELEVANCE));
+            totalRecords = found.getTotal();
+            model.addAttribute("pageOffset", found.getOffset());
+            model.addAttribute("pageLimit", found.getLimit());
+            model.addAttribute("pageEnd", found.getOffset() + crimes.size());
+            model.addAttribute("prevOffset", found.getOffset() > 0 ? Math.max(0, found.getOffset() - found.getLimit()) : null);
+            model.addAttribute("nextOffset", found.hasMore() ? found.getOffset() + found.getLimit() : null);
+            model.addAttribute("facets", found.getFacets());
         } else {
-            // Get all crimes in FIFO order (latest first using Stack behavior)
-            crimes = crimeService.getAllCrimesInFIFOOrder();
+            // One keyset page of the latest-first listing; nothing else is copied
+            CrimePage page;
+            try {
+                page = crimeService.getCrimesPage(afterCursor, limit);
+            } catch (IllegalArgumentException e) {
+                page = crimeService.getCrimesPage(null, limit);
+            }
+            crimes = page.getCrimes();
+            totalRecords = crimeService.getTotalCrimeCount();
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("pageCursor", afterCursor);
+            model.addAttribute("pageLimit", limit);
+            model.addAttribute("facets", searchService.getFacets());
         }
-        
-        // Sort newest first (createdAt descending)
-        crimes = new ArrayList<>(crimes);
-        crimes.sort(Comparator.comparing(Crime::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())).reversed());
 
-        // Group by date: Today, Yesterday, Earlier
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
+        // Group by date: Today, Yesterday, Earlier, split at the day boundaries
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        long tomorrowStart = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long todayStart = today.atStartOfDay(zone).toInstant().toEpochMilli();
+        long yesterdayStart = today.minusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
         List<Crime> todayCrimes = new ArrayList<>();
         List<Crime> yesterdayCrimes = new ArrayList<>();
         List<Crime> earlierCrimes = new ArrayList<>();
-        for (Crime c : crimes) {
-            if (c.getCreatedAt() == null) {
-                earlierCrimes.add(c);
-                continue;
+        if (newestFirst) {
+            // Each group is a contiguous run, found by binary search on the boundaries
+            int future = firstBefore(crimes, tomorrowStart);
+            int todayEnd = firstBefore(crimes, todayStart);
+            int yesterdayEnd = firstBefore(crimes, yesterdayStart);
+            todayCrimes.addAll(crimes.subList(future, todayEnd));
+            yesterdayCrimes.addAll(crimes.subList(todayEnd, yesterdayEnd));
+            earlierCrimes.addAll(crimes.subList(0, future));
+            earlierCrimes.addAll(crimes.subList(yesterdayEnd, crimes.size()));
+        } else {
+            for (Crime c : crimes) {
+                long created = c.getCreatedAtMillis();
+                if (created >= todayStart && created < tomorrowStart) todayCrimes.add(c);
+                else if (created >= yesterdayStart && created < todayStart) yesterdayCrimes.add(c);
+                else earlierCrimes.add(c);
             }
-            LocalDate d = c.getCreatedAt().toLocalDate();
-            if (d.isEqual(today)) todayCrimes.add(c);
-            else if (d.isEqual(yesterday)) yesterdayCrimes.add(c);
-            else earlierCrimes.add(c);
         }
 
         model.addAttribute("crimes", crimes);
-        model.addAttribute("totalRecords", crimes.size());
+        model.addAttribute("totalRecords", totalRecords);
         model.addAttribute("todayCrimes", todayCrimes);
         model.addAttribute("yesterdayCrimes", yesterdayCrimes);
         model.addAttribute("earlierCrimes", earlierCrimes);
         
         return "crime-records";
     }
+
+    // Index of the first record created before the boundary, in a newest-first list
+    private static int firstBefore(List<Crime> crimes, long boundaryMillis) {
+        int low = 0;
+        int high = crimes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (crimes.get(mid).getCreatedAtMillis() >= boundaryMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // One page of the records for the search term and/or date filter, or null when neither is
+    // given. from and to are inclusive yyyy-MM-dd days, days the last N days including today (it
+    // overrides from/to). sort is newest, oldest, name, city, crime-type or relevance (blank for
+    // the default: relevance for details, newest otherwise).
+    private SearchResultPage findRecords(String searchTerm, String searchType, String match, String from, String to,
+                                         Integer days, SortKey sort, int offset, int limit) {
+        LocalDateTime[] range = dateRange(from, to, days);
+        boolean hasTerm = searchTerm != null && !searchTerm.trim().isEmpty();
+        if (!hasTerm && range == null) {
+            return null;
+        }
+        LocalDateTime start = range != null ? range[0] : null;
+        LocalDateTime end = range != null ? range[1] : null;
+        int pageSize = Math.max(1, Math.min(limit, CrimeService.MAX_PAGE_SIZE));
+        if (hasTerm && "id".equalsIgnoreCase(searchType)) {
+            Crime crime = crimeService.getCrimeById(searchTerm);
+            List<Crime> crimes = crime != null ? List.of(crime) : List.of();
+            if (range != null) {
+                crimes = searchService.restrictToDateRange(crimes, start, end);
+            }
+            return new SearchResultPage(crimes, crimes.size(), 0, pageSize, searchService.facetsFor(crimes));
+        }
+        return searchService.searchPage(hasTerm ? searchType : "all", hasTerm ? searchTerm : "", MatchMode.parse(match),
+                start, end, sort, Math.max(0, offset), pageSize);
+    }
+
+    // [start, end) in local time, either end open; null when no date filter is given
+    private static LocalDateTime[] dateRange(String from, String to, Integer days) {
+        try {
+            if (days != null) {
+                if (days < 1) {
+                    throw new IllegalArgumentException("days must be at least 1");
+                }
+                return new LocalDateTime[] {LocalDate.now().minusDays(days - 1L).atStartOfDay(), null};
+            }
+            LocalDateTime start = from != null && !from.trim().isEmpty() ? LocalDate.parse(from.trim()).atStartOfDay() : null;
+            LocalDateTime end = to != null && !to.trim().isEmpty() ? LocalDate.parse(to.trim()).plusDays(1).atStartOfDay() : null;
+            return start != null || end != null ? new LocalDateTime[] {start, end} : null;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + e.getMessage());
+        }
+    }
 }
@@ -1,36 +1,115 @@
 package com.crimemanagement.model;
 
+import com.crimemanagement.util.StringDictionary;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
+// Kept compact because every record lives in memory: the ObjectId is held as its
+// 12 raw bytes (int + long), createdAt as epoch millis, and city / crime type as
+// codes into the shared StringDictionary. Getters still return the usual types.
 public class Crime {
-    private String id;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private int idHigh;    // ObjectId bytes 0-3 (timestamp)
+    private long idLow;    // ObjectId bytes 4-11
+    private boolean hasId;
     private String name;
-    private String city;
-    private String crimeType;
+    private int cityCode = StringDictionary.NONE;
+    private int crimeTypeCode = StringDictionary.NONE;
     private String details;
     private String photoPath;
-    private LocalDateTime createdAt;
+    private long createdAtMillis = NO_DATE;
     
     public Crime() {
-        this.createdAt = LocalDateTime.now();
+        this.createdAtMillis = System.currentTimeMillis();
     }
     
     public Crime(String name, String city, String crimeType, String details, String photoPath) {
         this.name = name;
-        this.city = city;
-        this.crimeType = crimeType;
+        setCity(city);
+        setCrimeType(crimeType);
         this.details = details;
         this.photoPath = photoPath;
-        this.createdAt = LocalDateTime.now();
+        this.createdAtMillis = System.currentTimeMillis();
+    }
+    
+    public Crime(Crime other) {
+        this.idHigh = other.idHigh;
+        this.idLow = other.idLow;
+        this.hasId = other.hasId;
+        this.name = other.name;
+        this.cityCode = other.cityCode;
+        this.crimeTypeCode = other.crimeTypeCode;
+        this.details = other.details;
+        this.photoPath = other.photoPath;
+        this.createdAtMillis = other.createdAtMillis;
     }
     
     // Getters and Setters
     public String getId() {
-        return id;
+        if (!hasId) {
+            return null;
+        }
+        char[] hex = new char[24];
+        for (int i = 0; i < 8; i++) {
+            hex[i] = HEX[(idHigh >>> (28 - 4 * i)) & 0xF];
+        }
+        for (int i = 0; i < 16; i++) {
+            hex[8 + i] = HEX[(int) (idLow >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(hex);
     }
     
     public void setId(String id) {
-        this.id = id;
+        if (id == null) {
+            hasId = false;
+            idHigh = 0;
+            idLow = 0;
+            return;
+        }
+        if (id.length() != 24) {
+            throw new IllegalArgumentException("Invalid record id: " + id);
+        }
+        this.idHigh = Integer.parseUnsignedInt(id.substring(0, 8), 16);
+        this.idLow = Long.parseUnsignedLong(id.substring(8), 16);
+        this.hasId = true;
+    }
+    
+    public ObjectId getObjectId() {
+        return hasId ? new ObjectId(ByteBuffer.allocate(12).putInt(idHigh).putLong(idLow).array()) : null;
+    }
+    
+    public void setObjectId(ObjectId id) {
+        if (id == null) {
+            setId(null);
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(id.toByteArray());
+        this.idHigh = bytes.getInt();
+        this.idLow = bytes.getLong();
+        this.hasId = true;
+    }
+    
+    public boolean hasId() {
+        return hasId;
+    }
+    
+    // Same order as comparing the hex ids, without building them
+    public int compareIdTo(Crime other) {
+        if (hasId != other.hasId) {
+            return hasId ? 1 : -1;
+        }
+        int cmp = Integer.compareUnsigned(idHigh, other.idHigh);
+        return cmp != 0 ? cmp : Long.compareUnsigned(idLow, other.idLow);
+    }
+    
+    public boolean sameId(Crime other) {
+        return hasId == other.hasId && idHigh == other.idHigh && idLow == other.idLow;
     }
     
     public String getName() {
@@ -42,19 +121,27 @@ public class Crime {
     }
     
     public String getCity() {
-        return city;
+        return StringDictionary.shared().decode(cityCode);
     }
     
     public void setCity(String city) {
-        this.city = city;
+        this.cityCode = StringDictionary.shared().encode(city);
+    }
+    
+    public int getCityCode() {
+        return cityCode;
     }
     
     public String getCrimeType() {
-        return crimeType;
+        return StringDictionary.shared().decode(crimeTypeCode);
     }
     
     public void setCrimeType(String crimeType) {
-        this.crimeType = crimeType;
+        this.crimeTypeCode = StringDictionary.shared().encode(crimeType);
+    }
+    
+    public int getCrimeTypeCode() {
+        return crimeTypeCode;
     }
     
     public String getDetails() {
@@ -74,21 +161,33 @@ public class Crime {
     }
     
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return createdAtMillis == NO_DATE ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAtMillis), ZoneId.systemDefault());
     }
     
+    // MongoDB dates carry millisecond precision, and so does this field
     public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        this.createdAtMillis = createdAt == null ? NO_DATE
+                : createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    // Long.MIN_VALUE when unknown
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+    
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
     }
     
     @Override
     public String toString() {
         return "Crime{" +
                 "name='" + name + '\'' +
-                ", city='" + city + '\'' +
-                ", crimeType='" + crimeType + '\'' +
+                ", city='" + getCity() + '\'' +
+                ", crimeType='" + getCrimeType() + '\'' +
                 ", details='" + details + '\'' +
-                ", createdAt=" + createdAt +
+                ", createdAt=" + getCreatedAt() +
                 '}';
     }
 }
@@ -0,0 +1,25 @@
+package com.crimemanagement.model;
+
+import java.util.List;
+
+public class CrimePage {
+    private final List<Crime> crimes;
+    private final String nextCursor; // null on the last page
+    
+    public CrimePage(List<Crime> crimes, String nextCursor) {
+        this.crimes = crimes;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Crime> getCrimes() {
+        return crimes;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
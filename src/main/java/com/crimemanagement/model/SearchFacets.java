@@ -0,0 +1,35 @@
+package com.crimemanagement.model;
+
+import java.util.Map;
+
+// Breakdown of a result set: record counts per city and crime type (largest
+// first) and per day (yyyy-MM-dd, newest first)
+public class SearchFacets {
+    private final int total;
+    private final Map<String, Integer> byCity;
+    private final Map<String, Integer> byCrimeType;
+    private final Map<String, Integer> byDay;
+
+    public SearchFacets(int total, Map<String, Integer> byCity, Map<String, Integer> byCrimeType, Map<String, Integer> byDay) {
+        this.total = total;
+        this.byCity = byCity;
+        this.byCrimeType = byCrimeType;
+        this.byDay = byDay;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getByCity() {
+        return byCity;
+    }
+
+    public Map<String, Integer> getByCrimeType() {
+        return byCrimeType;
+    }
+
+    public Map<String, Integer> getByDay() {
+        return byDay;
+    }
+}
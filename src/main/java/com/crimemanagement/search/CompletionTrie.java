@@ -0,0 +1,193 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix completion over weighted keys. Each trie node stores its children in
+ * sorted parallel arrays and the largest weight anywhere beneath it, so a
+ * best-first walk from the prefix node yields the top-N completions without
+ * enumerating the whole subtree. Lookups share a read lock; weight updates take
+ * the write lock and only touch the key's path.
+ */
+public class CompletionTrie {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Sets the key's weight (0 removes it); display is the form complete() returns
+    public void set(String key, String display, int weight) {
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[key.length() + 1];
+            Node node = root;
+            path[0] = node;
+            for (int i = 0; i < key.length(); i++) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    if (weight <= 0) {
+                        return;
+                    }
+                    child = node.addChild(key.charAt(i));
+                }
+                node = child;
+                path[i + 1] = node;
+            }
+            node.weight = Math.max(0, weight);
+            if (node.weight == 0) {
+                node.display = null;
+            } else if (node.display == null) {
+                node.display = display;
+            }
+            // Refresh subtree maxima bottom-up, pruning nodes that no longer lead anywhere
+            for (int i = key.length(); i >= 0; i--) {
+                Node current = path[i];
+                current.best = current.weight;
+                for (Node child : current.children) {
+                    current.best = Math.max(current.best, child.best);
+                }
+                if (i > 0 && current.best == 0 && current.children.length == 0) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.labels = NO_LABELS;
+            root.children = NO_CHILDREN;
+            root.weight = 0;
+            root.best = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to limit completions of the prefix, heaviest first
+    public List<Completion> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            List<Completion> results = new ArrayList<>(Math.max(0, limit));
+            if (node == null || limit <= 0) {
+                return results;
+            }
+
+            // Nodes are queued by the best weight beneath them; a node's own key is queued
+            // separately by its weight, so keys come out in descending weight order
+            PriorityQueue<Entry> queue = new PriorityQueue<>();
+            queue.add(new Entry(node, node.best, false));
+            while (!queue.isEmpty() && results.size() < limit) {
+                Entry entry = queue.poll();
+                if (entry.terminal) {
+                    results.add(new Completion(entry.node.display, entry.node.weight));
+                    continue;
+                }
+                if (entry.node.weight > 0) {
+                    queue.add(new Entry(entry.node, entry.node.weight, true));
+                }
+                for (Node child : entry.node.children) {
+                    if (child.best > 0) {
+                        queue.add(new Entry(child, child.best, false));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static final class Completion {
+        private final String value;
+        private final int count;
+
+        Completion(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final Node node;
+        private final int priority;
+        private final boolean terminal;
+
+        private Entry(Node node, int priority, boolean terminal) {
+            this.node = node;
+            this.priority = priority;
+            this.terminal = terminal;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = Integer.compare(other.priority, priority);
+            // On ties, emit finished keys before expanding further
+            return cmp != 0 ? cmp : Boolean.compare(other.terminal, terminal);
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int weight;   // records filed under exactly this key
+        private int best;     // max weight in this subtree
+        private String display;
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char c) {
+            int index = -Arrays.binarySearch(labels, c) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = c;
+            newChildren[index] = new Node();
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[index];
+        }
+
+        private void removeChild(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.crimemanagement.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only posting list stored as varint-encoded (doc id delta, term frequency)
+ * pairs. Doc ids are assigned in increasing order, so deltas stay small and most
+ * entries take two or three bytes instead of eight.
+ */
+final class CompressedPostings {
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int lastDoc = -1;
+    private int count;
+
+    void add(int doc, int frequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc ids must increase: " + doc + " after " + lastDoc);
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(frequency);
+        lastDoc = doc;
+        count++;
+    }
+
+    // Entries including those of tombstoned docs
+    int count() {
+        return count;
+    }
+
+    int byteSize() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    final class Cursor {
+        private int position;
+        private int doc = -1;
+        private int frequency;
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            doc += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-process inverted index over one free-text field with BM25 ranking.
+ * Every added document gets the next int doc id; each term keeps a compressed
+ * posting list of (doc id, term frequency). Removing a document only tombstones
+ * its id, and the whole index is rebuilt from the live documents once tombstones
+ * outnumber them. Documents are tracked by identity and their text is read back
+ * through textOf when rebuilding, so the index holds no copy of it. Not thread-safe.
+ */
+public class FullTextIndex<T> {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, CompressedPostings> postings = new HashMap<>();
+    private final List<T> docs = new ArrayList<>();   // doc id -> document, null once removed
+    private final IntList lengths = new IntList(1024); // doc id -> number of terms
+    private final Map<T, Integer> docIds = new IdentityHashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final Function<T, String> textOf;
+    private long totalLength;
+    // Score accumulators indexed by doc id, reused across queries; all zero between searches
+    private double[] scores = new double[0];
+
+    public FullTextIndex(Function<T, String> textOf) {
+        this.textOf = textOf;
+    }
+
+    public void add(T document) {
+        if (docIds.containsKey(document)) {
+            return;
+        }
+        int doc = docs.size();
+        docs.add(document);
+        docIds.put(document, doc);
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        List<String> terms = Tokenizer.tokenize(textOf.apply(document));
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new CompressedPostings()).add(doc, entry.getValue());
+        }
+        lengths.add(terms.size());
+        totalLength += terms.size();
+    }
+
+    public void remove(T document) {
+        Integer doc = docIds.remove(document);
+        if (doc == null) {
+            return;
+        }
+        docs.set(doc, null);
+        deleted.set(doc);
+        totalLength -= lengths.get(doc);
+        int tombstones = deleted.cardinality();
+        if (tombstones > 1024 && tombstones > docIds.size()) {
+            rebuild();
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        docs.clear();
+        lengths.clear();
+        docIds.clear();
+        deleted.clear();
+        totalLength = 0;
+        scores = new double[0];
+    }
+
+    public int size() {
+        return docIds.size();
+    }
+
+    // Approximate bytes held by the compressed posting lists
+    public long postingBytes() {
+        long total = 0;
+        for (CompressedPostings list : postings.values()) {
+            total += list.byteSize();
+        }
+        return total;
+    }
+
+    // Up to k live documents matching any query term, best BM25 score first
+    public List<T> search(String query, int k) {
+        return k <= 0 ? Collections.emptyList() : rank(query, k, null, null);
+    }
+
+    // Every live document matching any query term and accepted by filter (null accepts all),
+    // with the k best of them by BM25 score. The filter runs before ranking, so a restriction
+    // such as a date range cannot drop matches ranked below k; scores still use the whole index.
+    public Hits<T> search(String query, int k, Predicate<T> filter) {
+        List<T> accepted = new ArrayList<>();
+        List<T> top = rank(query, k, filter, accepted);
+        return new Hits<>(top, accepted);
+    }
+
+    // The k best accepted matches, best first; every accepted match is also added to accepted
+    // unless it is null, so a plain top-k query holds only the heap, not every match
+    private List<T> rank(String query, int k, Predicate<T> filter, List<T> accepted) {
+        List<String> terms = Tokenizer.tokenize(query);
+        int live = docIds.size();
+        if (terms.isEmpty() || live == 0) {
+            return Collections.emptyList();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / live);
+
+        // Accumulate into the shared array and remember the ids touched, so only those are reset
+        if (scores.length < docs.size()) {
+            scores = new double[Math.max(docs.size(), scores.length * 2)];
+        }
+        double[] scores = this.scores;
+        IntList matched = new IntList();
+        for (String term : new LinkedHashSet<>(terms)) {
+            CompressedPostings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            // Document frequency still counts tombstones until the next rebuild; close enough for ranking
+            int df = Math.min(list.count(), live);
+            double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+            CompressedPostings.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                int doc = cursor.doc();
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                double tf = cursor.frequency();
+                double norm = tf + K1 * (1 - B + B * lengths.get(doc) / averageLength);
+                if (scores[doc] == 0) {
+                    matched.add(doc);
+                }
+                scores[doc] += idf * tf * (K1 + 1) / norm;
+            }
+        }
+
+        // Bounded min-heap keeps the k best without sorting every match
+        PriorityQueue<Integer> top = new PriorityQueue<>((a, b) -> Double.compare(scores[a], scores[b]));
+        for (int i = 0; i < matched.size(); i++) {
+            int doc = matched.get(i);
+            if (filter != null && !filter.test(docs.get(doc))) {
+                continue;
+            }
+            if (accepted != null) {
+                accepted.add(docs.get(doc));
+            }
+            if (k <= 0) {
+                continue;
+            }
+            if (top.size() < k) {
+                top.add(doc);
+            } else if (scores[doc] > scores[top.peek()]) {
+                top.poll();
+                top.add(doc);
+            }
+        }
+        List<T> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(docs.get(top.poll()));
+        }
+        Collections.reverse(results);
+        for (int i = 0; i < matched.size(); i++) {
+            scores[matched.get(i)] = 0;
+        }
+        return results;
+    }
+
+    private void rebuild() {
+        List<T> liveDocs = new ArrayList<>(docIds.size());
+        for (T document : docs) {
+            if (document != null) {
+                liveDocs.add(document);
+            }
+        }
+        clear();
+        for (T document : liveDocs) {
+            add(document);
+        }
+    }
+
+    public static final class Hits<T> {
+        private final List<T> top;
+        private final List<T> matches;
+
+        Hits(List<T> top, List<T> matches) {
+            this.top = top;
+            this.matches = matches;
+        }
+
+        // The best matches, best first
+        public List<T> getTop() {
+            return top;
+        }
+
+        // Every accepted match, unordered
+        public List<T> getMatches() {
+            return matches;
+        }
+
+        public int getTotal() {
+            return matches.size();
+        }
+    }
+}
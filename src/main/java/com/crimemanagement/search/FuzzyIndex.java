@@ -0,0 +1,117 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Edit-distance lookup (up to 2) over a set of distinct keys. The keys are kept
+ * sorted, which makes them an implicit trie: a depth-first walk over shared
+ * prefixes carries one Levenshtein DP row per prefix and abandons a branch as
+ * soon as every cell in the row exceeds the bound. This simulates a Levenshtein
+ * automaton over the dictionary, so a lookup touches only the prefixes that can
+ * still lead to a match rather than every key. Not thread-safe.
+ */
+public class FuzzyIndex {
+    private static final int MAX_DISTANCE = 2;
+
+    private final TreeSet<String> keys = new TreeSet<>();
+
+    public void add(String key) {
+        keys.add(key);
+    }
+
+    public void remove(String key) {
+        keys.remove(key);
+    }
+
+    public void clear() {
+        keys.clear();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    // Keys within maxDistance (capped at 2) of the query, closest first
+    public List<String> search(String query, int maxDistance) {
+        int limit = Math.max(0, Math.min(maxDistance, MAX_DISTANCE));
+        List<List<String>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= limit; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+
+        int[] row = new int[query.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        walk("", query, row, limit, byDistance);
+
+        List<String> results = new ArrayList<>();
+        for (List<String> matches : byDistance) {
+            results.addAll(matches);
+        }
+        return results;
+    }
+
+    // Whether search(query, maxDistance) would return key, if key were indexed
+    public static boolean withinDistance(String key, String query, int maxDistance) {
+        int limit = Math.max(0, Math.min(maxDistance, MAX_DISTANCE));
+        if (Math.abs(key.length() - query.length()) > limit) {
+            return false;
+        }
+        int[] row = new int[query.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            row = nextRow(row, query, key.charAt(i));
+            if (min(row) > limit) {
+                return false;
+            }
+        }
+        return row[query.length()] <= limit;
+    }
+
+    // row holds the distances between prefix and every prefix of the query
+    private void walk(String prefix, String query, int[] row, int limit, List<List<String>> byDistance) {
+        int distance = row[query.length()];
+        if (distance <= limit && !prefix.isEmpty() && keys.contains(prefix)) {
+            byDistance.get(distance).add(prefix);
+        }
+
+        // Visit each distinct next character among the keys that extend this prefix
+        String next = keys.higher(prefix);
+        while (next != null && next.startsWith(prefix)) {
+            char c = next.charAt(prefix.length());
+            String child = prefix + c;
+            int[] childRow = nextRow(row, query, c);
+            if (min(childRow) <= limit) {
+                walk(child, query, childRow, limit, byDistance);
+            }
+            if (c == Character.MAX_VALUE) {
+                break;
+            }
+            // Skip past every key sharing the child prefix
+            next = keys.ceiling(prefix + (char) (c + 1));
+        }
+    }
+
+    private static int[] nextRow(int[] row, String query, char c) {
+        int[] next = new int[row.length];
+        next[0] = row[0] + 1;
+        for (int i = 1; i < row.length; i++) {
+            int cost = query.charAt(i - 1) == c ? 0 : 1;
+            next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+        }
+        return next;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
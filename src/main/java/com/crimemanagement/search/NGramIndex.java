@@ -0,0 +1,160 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over a set of distinct keys (names, cities, ...), answering
+ * "which keys contain this substring" without scanning them all. Each key gets
+ * an increasing int id and every trigram keeps a sorted list of the ids whose
+ * key contains it; a query intersects the lists of its own trigrams, smallest
+ * first, and verifies the few survivors with String.contains.
+ * Removed keys are tombstoned and swept out once they outnumber live ones.
+ * Keys are expected lower-cased by the caller. Not thread-safe.
+ */
+public class NGramIndex {
+    private static final int N = 3;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> keys = new ArrayList<>(); // id -> key, null once removed
+    private final Map<Long, IntList> grams = new HashMap<>();
+    private int removed;
+
+    public void add(String key) {
+        if (ids.containsKey(key)) {
+            return;
+        }
+        int id = keys.size();
+        ids.put(key, id);
+        keys.add(key);
+        for (long gram : gramsOf(key)) {
+            // Ids only grow, so appending keeps every list sorted
+            grams.computeIfAbsent(gram, g -> new IntList()).add(id);
+        }
+    }
+
+    public void remove(String key) {
+        Integer id = ids.remove(key);
+        if (id == null) {
+            return;
+        }
+        keys.set(id, null);
+        removed++;
+        if (removed > 1024 && removed > ids.size()) {
+            compact();
+        }
+    }
+
+    public void clear() {
+        ids.clear();
+        keys.clear();
+        grams.clear();
+        removed = 0;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // Every indexed key containing the (lower-cased) query
+    public List<String> keysContaining(String query) {
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (query.length() < N) {
+            // Too short to have a trigram; the key set is still far smaller than the record set
+            List<String> matches = new ArrayList<>();
+            for (String key : ids.keySet()) {
+                if (key.contains(query)) {
+                    matches.add(key);
+                }
+            }
+            return matches;
+        }
+
+        Set<Long> queryGrams = gramsOf(query);
+        List<IntList> lists = new ArrayList<>(queryGrams.size());
+        for (long gram : queryGrams) {
+            IntList list = grams.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        int[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+
+        List<String> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String key = keys.get(candidates[i]);
+            // Sharing every trigram does not guarantee the trigrams are adjacent
+            if (key != null && key.contains(query)) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    // Keeps the candidates[0..count) that also appear in the sorted list; returns the new count
+    private static int intersect(int[] candidates, int count, IntList list) {
+        int kept = 0;
+        int j = 0;
+        int size = list.size();
+        for (int i = 0; i < count && j < size; i++) {
+            int id = candidates[i];
+            j = seek(list, j, size, id);
+            if (j < size && list.get(j) == id) {
+                candidates[kept++] = id;
+            }
+        }
+        return kept;
+    }
+
+    // Galloping search for the first position >= from holding a value >= target
+    private static int seek(IntList list, int from, int size, int target) {
+        int step = 1;
+        int high = from;
+        while (high < size && list.get(high) < target) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (from < high) {
+            int mid = (from + high) >>> 1;
+            if (list.get(mid) < target) {
+                from = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return from;
+    }
+
+    // Reassigns dense ids to the live keys and rebuilds the gram lists
+    private void compact() {
+        List<String> live = new ArrayList<>(ids.keySet());
+        clear();
+        for (String key : live) {
+            add(key);
+        }
+    }
+
+    private static Set<Long> gramsOf(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Groups distinct keys by their Soundex code, so a phonetic lookup is one hash probe.
+// Not thread-safe.
+public class PhoneticIndex {
+    private final Map<String, Set<String>> keysByCode = new HashMap<>();
+
+    public void add(String key) {
+        String code = Soundex.encode(key);
+        if (!code.isEmpty()) {
+            keysByCode.computeIfAbsent(code, c -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    public void remove(String key) {
+        String code = Soundex.encode(key);
+        Set<String> keys = keysByCode.get(code);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByCode.remove(code);
+        }
+    }
+
+    public void clear() {
+        keysByCode.clear();
+    }
+
+    public List<String> keysSoundingLike(String query) {
+        Set<String> keys = keysByCode.get(Soundex.encode(query));
+        return keys != null ? new ArrayList<>(keys) : Collections.emptyList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.crimemanagement.search;
+
+// American Soundex, applied word by word so "Jon Smyth" and "John Smith"
+// both encode to "J500 S530".
+public final class Soundex {
+    //                                    ABCDEFGHIJKLMNOPQRSTUVWXYZ
+    private static final String CODES = "01230120022455012623010202";
+
+    private Soundex() {
+    }
+
+    public static String encode(String text) {
+        StringBuilder result = new StringBuilder();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetter(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String code = encodeWord(text.substring(start, i));
+                if (!code.isEmpty()) {
+                    if (result.length() > 0) {
+                        result.append(' ');
+                    }
+                    result.append(code);
+                }
+                start = -1;
+            }
+        }
+        return result.toString();
+    }
+
+    private static String encodeWord(String word) {
+        String upper = word.toUpperCase();
+        char[] code = {0, '0', '0', '0'};
+        int length = 0;
+        char lastDigit = 0;
+        for (int i = 0; i < upper.length() && length < 4; i++) {
+            char c = upper.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            char digit = CODES.charAt(c - 'A');
+            if (length == 0) {
+                code[length++] = c;
+            } else if (digit != '0' && digit != lastDigit) {
+                code[length++] = digit;
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'H' && c != 'W') {
+                lastDigit = digit;
+            }
+        }
+        return length == 0 ? "" : new String(code);
+    }
+}
@@ -0,0 +1,83 @@
+package com.crimemanagement.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits free text into lower-case, stemmed terms for the full-text index.
+ * Letters and digits form words; common English stop words are dropped and the
+ * remaining words pass through a light suffix-stripping stemmer, so "robbed",
+ * "robbery" and "robberies" meet at the same term without a full Porter stemmer.
+ */
+public final class Tokenizer {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "he", "in",
+            "is", "it", "its", "of", "on", "or", "she", "that", "the", "to", "was", "were", "will", "with");
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = text.substring(start, i).toLowerCase();
+                start = -1;
+                if (!STOP_WORDS.contains(word)) {
+                    terms.add(stem(word));
+                }
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        for (String suffix : new String[] {"ingly", "edly", "ing", "ed", "ly", "ment", "ness"}) {
+            if (stem.endsWith(suffix) && stem.length() - suffix.length() >= 3) {
+                stem = stem.substring(0, stem.length() - suffix.length());
+                // robbed -> robb -> rob
+                int n = stem.length();
+                if (n >= 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+                    stem = stem.substring(0, n - 1);
+                }
+                break;
+            }
+        }
+        // robbery -> robber, robber -> rob
+        if (stem.endsWith("ery") && stem.length() > 5) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.endsWith("er") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 2);
+            int n = stem.length();
+            if (stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+                stem = stem.substring(0, n - 1);
+            }
+        }
+        if (stem.endsWith("y") && stem.length() > 3) {
+            stem = stem.substring(0, stem.length() - 1) + "i";
+        }
+        return stem;
+    }
+}
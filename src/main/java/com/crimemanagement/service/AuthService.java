@@ -63,6 +63,7 @@ public class AuthService {
         switch (action) {
             case "ADD_USER":
             case "MANAGE_USERS":
+            case "IMPORT_CRIMES":
                 return "admin".equals(role);
                 
             case "ADD_CRIME":
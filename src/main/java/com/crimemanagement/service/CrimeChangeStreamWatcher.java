@@ -0,0 +1,201 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.util.CrimeDocumentMapper;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the crimes collection's change stream and applies every insert, update,
+ * replace and delete to the local CrimeService, so several JVMs sharing one
+ * database keep their in-memory copies coherent. The cursor's resume token is
+ * kept after every poll, including empty ones, so the stream continues where it
+ * left off after a dropped connection.
+ * Change streams need a replica set; on a standalone server the watcher logs
+ * once and stays off.
+ */
+public class CrimeChangeStreamWatcher {
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30000;
+    // Server error codes: change streams unsupported / resume point no longer in the oplog
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+    // How long start() waits for the stream to open before letting the caller go on
+    private static final long OPEN_TIMEOUT_MS = Long.getLong("crime.changeStream.openTimeoutMs", 5000L);
+
+    private final MongoCollection<Document> crimesCollection;
+    private final CrimeService crimeService;
+    private volatile boolean running;
+    private volatile BsonDocument resumeToken;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcherThread;
+    // Released once the first cursor is open or the watcher has given up
+    private final CountDownLatch streamOpened = new CountDownLatch(1);
+
+    public CrimeChangeStreamWatcher(MongoCollection<Document> crimesCollection, CrimeService crimeService) {
+        this.crimesCollection = crimesCollection;
+        this.crimeService = crimeService;
+    }
+
+    // Returns once the stream is open (or unavailable), so changes made after this call are
+    // seen; waits at most crime.changeStream.openTimeoutMs when the server is slow to answer
+    public void start() {
+        synchronized (this) {
+            if (running) {
+                return;
+            }
+            running = true;
+            watcherThread = new Thread(this::watchLoop, "crime-change-stream");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        }
+        try {
+            if (!streamOpened.await(OPEN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                System.err.println("Change stream not open after " + OPEN_TIMEOUT_MS + " ms; continuing while it connects.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception ignored) {
+            }
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    private void watchLoop() {
+        long backoff = INITIAL_BACKOFF_MS;
+        List<Bson> pipeline = Collections.singletonList(Aggregates.match(
+                Filters.in("operationType", Arrays.asList("insert", "update", "replace", "delete"))));
+
+        while (running) {
+            try {
+                ChangeStreamIterable<Document> stream = crimesCollection.watch(pipeline).fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = stream.cursor()) {
+                    cursor = opened;
+                    // A resume point from the moment of opening, so a drop before the first event loses nothing
+                    advanceResumeToken(opened);
+                    streamOpened.countDown();
+                    System.out.println("Watching crime records for changes from other processes.");
+                    backoff = INITIAL_BACKOFF_MS;
+                    while (running) {
+                        // tryNext returns null after an empty batch; the cursor's post-batch token still
+                        // moves forward, so an idle stream resumes from its last poll, not "now"
+                        ChangeStreamDocument<Document> change = opened.tryNext();
+                        if (change != null) {
+                            apply(change);
+                        }
+                        advanceResumeToken(opened);
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    System.out.println("Change streams unavailable (MongoDB is not a replica set); "
+                            + "cross-process updates will appear after restart.");
+                    running = false;
+                    streamOpened.countDown();
+                    return;
+                }
+                if (e.getErrorCode() == HISTORY_LOST) {
+                    System.err.println("Change stream resume point expired; watching from now. "
+                            + "Changes made while disconnected need a restart to appear.");
+                    resumeToken = null;
+                }
+                backoff = pause(backoff, e);
+            } catch (IllegalStateException e) {
+                // Client closed during shutdown
+                running = false;
+                streamOpened.countDown();
+            } catch (Exception e) {
+                if (running) {
+                    backoff = pause(backoff, e);
+                }
+            } finally {
+                cursor = null;
+            }
+        }
+        streamOpened.countDown();
+    }
+
+    private void advanceResumeToken(MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened) {
+        BsonDocument token = opened.getResumeToken();
+        if (token != null) {
+            resumeToken = token;
+        }
+    }
+
+    private void apply(ChangeStreamDocument<Document> change) {
+        OperationType type = change.getOperationType();
+        if (type == OperationType.DELETE) {
+            String crimeId = documentKeyId(change);
+            if (crimeId != null) {
+                crimeService.applyRemoteDelete(crimeId);
+            }
+            return;
+        }
+
+        Document fullDocument = change.getFullDocument();
+        if (fullDocument != null) {
+            crimeService.applyRemoteUpsert(CrimeDocumentMapper.toCrime(fullDocument));
+        } else {
+            // The post-image was deleted before it could be looked up
+            String crimeId = documentKeyId(change);
+            if (crimeId != null) {
+                crimeService.applyRemoteDelete(crimeId);
+            }
+        }
+    }
+
+    private String documentKeyId(ChangeStreamDocument<Document> change) {
+        BsonDocument key = change.getDocumentKey();
+        BsonValue id = key != null ? key.get("_id") : null;
+        return id != null && id.isObjectId() ? id.asObjectId().getValue().toString() : null;
+    }
+
+    private long pause(long backoff, Exception cause) {
+        System.err.println("Change stream interrupted: " + cause.getMessage() + " (retrying in " + backoff + " ms)");
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, MAX_BACKOFF_MS);
+    }
+}
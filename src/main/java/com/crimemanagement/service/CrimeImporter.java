@@ -0,0 +1,288 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import org.bson.Document;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a CSV (header row required) or JSON-lines file into CrimeService.addCrimes
+ * one batch at a time, so memory stays constant regardless of file size.
+ * Recognised fields: name, city, crimeType, details, photoPath and optional createdAt.
+ * .jsonl, .ndjson and .json files are all read as JSON Lines, one object per line;
+ * a .json file holding a single top-level array is refused.
+ */
+public class CrimeImporter {
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+    // A quoted CSV field may span lines; a record this long means an unbalanced quote
+    private static final int MAX_RECORD_CHARS = Integer.getInteger("crime.import.maxRecordChars", 1 << 20);
+
+    private final CrimeService crimeService;
+    private final int batchSize;
+
+    public CrimeImporter(CrimeService crimeService) {
+        this(crimeService, Integer.getInteger("crime.bulk.batchSize", 1000));
+    }
+
+    public CrimeImporter(CrimeService crimeService, int batchSize) {
+        this.crimeService = crimeService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public ImportSummary importFile(Path path) throws IOException {
+        String fileName = path.getFileName().toString().toLowerCase();
+        boolean jsonLines = fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson") || fileName.endsWith(".json");
+
+        ImportSummary summary = new ImportSummary();
+        long lastReport = summary.startedAt;
+        List<Crime> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String[] header = null;
+            if (!jsonLines) {
+                String headerLine = readCsvRecord(reader);
+                if (headerLine == null) {
+                    return summary.finish();
+                }
+                header = parseCsvLine(stripBom(headerLine)).toArray(new String[0]);
+            }
+
+            String line;
+            while ((line = jsonLines ? reader.readLine() : readCsvRecord(reader)) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (jsonLines && summary.read == 0 && stripBom(line).trim().startsWith("[")) {
+                    throw new IOException(path.getFileName() + " holds a JSON array; "
+                            + "write one JSON object per line (JSON Lines) to import it");
+                }
+                summary.read++;
+
+                Crime crime;
+                try {
+                    crime = jsonLines ? fromJson(line) : fromCsv(header, line);
+                } catch (Exception e) {
+                    crime = null;
+                }
+                if (crime == null) {
+                    summary.rejected++;
+                    continue;
+                }
+
+                batch.add(crime);
+                if (batch.size() == batchSize) {
+                    flush(batch, summary);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= PROGRESS_INTERVAL_MS) {
+                    System.out.println("Imported " + summary.inserted + " of " + summary.read
+                            + " record(s) read, " + summary.recordsPerSecond() + " records/s");
+                    lastReport = now;
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch, summary);
+        }
+        return summary.finish();
+    }
+
+    private void flush(List<Crime> batch, ImportSummary summary) {
+        int inserted = crimeService.addCrimes(batch, batchSize);
+        summary.inserted += inserted;
+        summary.failed += batch.size() - inserted;
+        batch.clear();
+    }
+
+    private Crime fromJson(String line) {
+        Document doc = Document.parse(line);
+        Object createdAt = doc.get("createdAt");
+        return buildCrime(doc.getString("name"), doc.getString("city"), doc.getString("crimeType"),
+                doc.getString("details"), doc.getString("photoPath"),
+                createdAt instanceof Date ? toLocalDateTime((Date) createdAt)
+                        : createdAt != null ? parseDateTime(createdAt.toString()) : null);
+    }
+
+    private Crime fromCsv(String[] header, String line) {
+        List<String> values = parseCsvLine(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            row.put(header[i].trim().toLowerCase(), values.get(i));
+        }
+        String createdAt = row.get("createdat");
+        return buildCrime(row.get("name"), row.get("city"), row.get("crimetype"),
+                row.get("details"), row.get("photopath"),
+                createdAt != null && !createdAt.trim().isEmpty() ? parseDateTime(createdAt.trim()) : null);
+    }
+
+    private Crime buildCrime(String name, String city, String crimeType, String details,
+                             String photoPath, LocalDateTime createdAt) {
+        if (isBlank(name) || isBlank(city) || isBlank(crimeType)) {
+            return null;
+        }
+        Crime crime = new Crime(name.trim(), city.trim(), crimeType.trim(),
+                details != null ? details.trim() : "",
+                isBlank(photoPath) ? "photos/default.jpg" : photoPath.trim());
+        if (createdAt != null) {
+            crime.setCreatedAt(createdAt.truncatedTo(ChronoUnit.MILLIS));
+        }
+        return crime;
+    }
+
+    // Accepts ISO local date-times, offset date-times, instants and plain dates
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (Exception ignored) {
+        }
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (Exception ignored) {
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+        } catch (Exception ignored) {
+        }
+        return LocalDate.parse(value).atStartOfDay();
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    // One CSV record: a line, joined with the following ones while a quoted field is still
+    // open (its line breaks are kept), up to MAX_RECORD_CHARS. A quote still open at that
+    // point or at end of file makes parseCsvLine reject the record. null at end of file.
+    private static String readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || !hasOpenQuote(line, false)) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        boolean open = true;
+        String next;
+        while (open && record.length() < MAX_RECORD_CHARS && (next = reader.readLine()) != null) {
+            record.append('\n').append(next);
+            open = hasOpenQuote(next, open);
+        }
+        return record.toString();
+    }
+
+    // Whether a quoted field is still open at the end of the line; a doubled quote toggles twice
+    private static boolean hasOpenQuote(String line, boolean openAtStart) {
+        boolean open = openAtStart;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    // RFC 4180 style: comma separated, fields optionally quoted, "" escapes a quote; the record
+    // may contain line breaks inside quoted fields (see readCsvRecord)
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    public static class ImportSummary {
+        private final long startedAt = System.currentTimeMillis();
+        private long elapsedMs;
+        private long read;
+        private long inserted;
+        private long rejected;
+        private long failed;
+
+        private ImportSummary finish() {
+            elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+            return this;
+        }
+
+        public long getRead() {
+            return read;
+        }
+
+        public long getInserted() {
+            return inserted;
+        }
+
+        // Rows that could not be parsed or lacked name/city/crime type
+        public long getRejected() {
+            return rejected;
+        }
+
+        // Rows the database refused
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public long recordsPerSecond() {
+            long elapsed = elapsedMs > 0 ? elapsedMs : Math.max(1, System.currentTimeMillis() - startedAt);
+            return inserted * 1000 / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return "Read " + read + ", inserted " + inserted + ", rejected " + rejected
+                    + ", failed " + failed + " in " + elapsedMs + " ms (" + recordsPerSecond() + " records/s)";
+        }
+    }
+}
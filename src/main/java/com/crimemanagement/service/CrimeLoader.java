@@ -0,0 +1,276 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import com.crimemanagement.util.CrimeDocumentMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mongodb.client.model.Filters.*;
+
+/**
+ * Startup bulk load: one thread streams large cursor batches while a worker pool
+ * decodes the previous batches and publishes them into the store, so the store
+ * fills progressively and the console is usable before the load finishes.
+ * When a record snapshot file is usable, the records come from it instead and
+ * only what changed in the collection since it was saved is fetched.
+ */
+public class CrimeLoader {
+    private static final int BATCH_SIZE = Integer.getInteger("crime.load.batchSize", 5000);
+    private static final int WORKERS = Integer.getInteger("crime.load.workers",
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+    // Edits are found by updatedAt, stamped with the writer's clock; allow for skew between hosts
+    private static final long CLOCK_SKEW_MS = Long.getLong("crime.snapshot.clockSkewMs", 60_000L);
+    // Beyond this many records missing from the snapshot, a full load is cheaper than fetching them by id
+    private static final int MAX_MISSING_IDS = Integer.getInteger("crime.snapshot.maxMissingIds", 10_000);
+
+    private final MongoCollection<Document> crimesCollection;
+    private final CrimeStore crimeStore;
+    private final RecordSnapshotFile snapshotFile; // null when warm start is off
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicLong loadedCount = new AtomicLong();
+    // Deletes that race with the load must not be resurrected by a stale batch
+    private final Set<String> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile long expectedCount;
+    private volatile long startedAt;
+    private volatile long elapsedMs;
+    private volatile boolean failed;
+    private volatile boolean warmStarted;
+
+    // Published records reach mutation listeners through the store's own listener.
+    // snapshotFile may be null to always load the whole collection.
+    public CrimeLoader(MongoCollection<Document> crimesCollection, CrimeStore crimeStore, RecordSnapshotFile snapshotFile) {
+        this.crimesCollection = crimesCollection;
+        this.crimeStore = crimeStore;
+        this.snapshotFile = snapshotFile;
+    }
+
+    public void start() {
+        Thread loaderThread = new Thread(this::load, "crime-loader");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    private void load() {
+        startedAt = System.currentTimeMillis();
+        ExecutorService decoders = Executors.newFixedThreadPool(WORKERS, daemonThreads("crime-decoder-"));
+        // Bound the number of undecoded batches held in memory
+        Semaphore inFlight = new Semaphore(WORKERS * 2);
+
+        try {
+            RecordSnapshotFile.Contents saved = snapshotFile != null ? snapshotFile.read() : null;
+            if (saved != null && warmStart(saved)) {
+                return;
+            }
+
+            expectedCount = crimesCollection.estimatedDocumentCount();
+            System.out.println("Loading " + expectedCount + " crime records in the background...");
+
+            long lastReport = startedAt;
+            try (MongoCursor<Document> cursor = crimesCollection.find()
+                    .projection(CrimeDocumentMapper.CRIME_PROJECTION)
+                    .batchSize(BATCH_SIZE)
+                    .iterator()) {
+                List<Document> batch = new ArrayList<>(BATCH_SIZE);
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == BATCH_SIZE) {
+                        inFlight.acquire();
+                        submitBatch(decoders, batch, inFlight);
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport >= PROGRESS_INTERVAL_MS) {
+                        reportProgress(now);
+                        lastReport = now;
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    inFlight.acquire();
+                    submitBatch(decoders, batch, inFlight);
+                }
+            }
+
+            decoders.shutdown();
+            decoders.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+            System.out.println("Loaded " + loadedCount.get() + " crime records from database in "
+                    + elapsedMs + " ms (" + getRecordsPerSecond() + " records/s).");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        } catch (Exception e) {
+            failed = true;
+            System.err.println("Error loading crimes from database: " + e.getMessage());
+        } finally {
+            decoders.shutdownNow();
+            removedWhileLoading.clear();
+            finished.countDown();
+        }
+    }
+
+    // Loads the saved records plus the collection's changes since the save. Returns false,
+    // having published nothing, when the file cannot be reconciled cheaply.
+    private boolean warmStart(RecordSnapshotFile.Contents saved) {
+        if (saved.getCrimes().isEmpty()) {
+            return false;
+        }
+        Map<ObjectId, Crime> records = new LinkedHashMap<>(saved.getCrimes().size() * 4 / 3 + 1);
+        for (Crime crime : saved.getCrimes()) {
+            records.put(crime.getObjectId(), crime);
+        }
+
+        // Validate: every saved record should still exist, and nothing older than the newest one be added
+        List<Bson> changed = new ArrayList<>();
+        Bson covered = lte("_id", saved.getMaxId());
+        int removed = 0;
+        if (crimesCollection.countDocuments(covered) != records.size()) {
+            Set<ObjectId> ids = new HashSet<>();
+            for (Document doc : crimesCollection.find(covered).projection(Projections.include("_id"))) {
+                ids.add(doc.getObjectId("_id"));
+            }
+            removed = records.size();
+            records.keySet().retainAll(ids);
+            removed -= records.size();
+            ids.removeAll(records.keySet());
+            if (ids.size() > MAX_MISSING_IDS) {
+                System.out.println("Record snapshot is missing " + ids.size() + " records; loading everything.");
+                return false;
+            }
+            if (!ids.isEmpty()) {
+                changed.add(in("_id", ids));
+            }
+        }
+        changed.add(gt("_id", saved.getMaxId()));
+        changed.add(gte("updatedAt", new Date(saved.getSavedAtMillis() - CLOCK_SKEW_MS)));
+
+        int fetched = 0;
+        try (MongoCursor<Document> cursor = crimesCollection.find(or(changed))
+                .projection(CrimeDocumentMapper.CRIME_PROJECTION)
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Crime crime = CrimeDocumentMapper.toCrime(cursor.next());
+                records.put(crime.getObjectId(), crime);
+                fetched++;
+            }
+        }
+
+        warmStarted = true;
+        expectedCount = records.size();
+        List<Crime> batch = new ArrayList<>(BATCH_SIZE);
+        for (Crime crime : records.values()) {
+            batch.add(crime);
+            if (batch.size() == BATCH_SIZE) {
+                publish(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        publish(batch);
+
+        elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+        System.out.println("Loaded " + loadedCount.get() + " crime records from " + snapshotFile.getPath()
+                + " (saved " + new Date(saved.getSavedAtMillis()) + "; " + fetched + " changed and "
+                + removed + " removed since) in " + elapsedMs + " ms (" + getRecordsPerSecond() + " records/s).");
+        return true;
+    }
+
+    private void publish(List<Crime> decoded) {
+        decoded.removeIf(crime -> removedWhileLoading.contains(crime.getId()));
+        loadedCount.addAndGet(crimeStore.putAllIfAbsent(decoded).size());
+    }
+
+    private void submitBatch(ExecutorService decoders, List<Document> batch, Semaphore inFlight) {
+        decoders.execute(() -> {
+            try {
+                List<Crime> decoded = new ArrayList<>(batch.size());
+                for (Document doc : batch) {
+                    decoded.add(CrimeDocumentMapper.toCrime(doc));
+                }
+                publish(decoded);
+            } catch (Exception e) {
+                // The store is missing this batch, so it must not be saved as a warm-start snapshot
+                failed = true;
+                System.err.println("Error decoding crime batch: " + e.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void reportProgress(long now) {
+        long loaded = loadedCount.get();
+        long elapsed = Math.max(1, now - startedAt);
+        String percent = expectedCount > 0 ? " (" + (loaded * 100 / expectedCount) + "%)" : "";
+        System.out.println("Loading crime records: " + loaded + "/" + expectedCount + percent
+                + ", " + (loaded * 1000 / elapsed) + " records/s");
+    }
+
+    public void markRemoved(String crimeId) {
+        if (!isFinished()) {
+            removedWhileLoading.add(crimeId);
+        }
+    }
+
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    // Whether the records came from the snapshot file rather than a full read of the collection
+    public boolean wasWarmStarted() {
+        return warmStarted;
+    }
+
+    public boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public long getLoadedCount() {
+        return loadedCount.get();
+    }
+
+    public long getExpectedCount() {
+        return expectedCount;
+    }
+
+    public long getRecordsPerSecond() {
+        long elapsed = isFinished() ? elapsedMs : System.currentTimeMillis() - startedAt;
+        return elapsed <= 0 ? 0 : loadedCount.get() * 1000 / elapsed;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+
+// Notified after CrimeService has applied a change to its in-memory store,
+// whether the change was made locally, arrived from another process or came
+// from the startup load. Calls are made while the store's write lock is held,
+// so they arrive in the order the changes were applied; listeners must not
+// write to the store. The records are the store's own instances, shared
+// rather than copied, and must be treated as read-only.
+public interface CrimeMutationListener {
+
+    // previous is null for an insert
+    void onCrimeSaved(Crime previous, Crime current);
+
+    void onCrimeRemoved(Crime removed);
+}
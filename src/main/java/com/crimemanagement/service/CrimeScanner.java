@@ -0,0 +1,156 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates predicates no index can answer by scanning the in-memory records on a
+ * fork-join pool. The input is split into fixed-size chunks; each chunk collects its
+ * matches separately and the parts are concatenated in input order, so a scan of a
+ * snapshot returns its matches oldest first. Every scan reports its throughput.
+ */
+public class CrimeScanner {
+    private static final int PARALLELISM = Integer.getInteger("crime.scan.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    // Records per task; inputs no larger than one chunk are scanned on the calling thread
+    private static final int CHUNK_SIZE = Math.max(256, Integer.getInteger("crime.scan.chunkSize", 4096));
+
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(1, PARALLELISM), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("crime-scan-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong recordsScanned = new AtomicLong();
+    private final AtomicLong scanNanos = new AtomicLong();
+    private volatile long lastRecordsPerSecond;
+
+    // Matching records of the snapshot, oldest first
+    List<Crime> scan(CrimeSnapshot snapshot, Predicate<Crime> predicate, String label) {
+        return scan(snapshot.size(), snapshot::forEachInRange, predicate, label);
+    }
+
+    // Matching records of the list, order kept
+    List<Crime> scan(List<Crime> crimes, Predicate<Crime> predicate, String label) {
+        return scan(crimes.size(), (from, to, action) -> crimes.subList(from, to).forEach(action), predicate, label);
+    }
+
+    private List<Crime> scan(int size, Source source, Predicate<Crime> predicate, String label) {
+        long started = System.nanoTime();
+        int chunks = Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        List<List<Crime>> parts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            parts.add(null);
+        }
+        ScanTask task = new ScanTask(source, predicate, parts, 0, chunks, size);
+        if (chunks == 1) {
+            task.compute();
+        } else {
+            try {
+                pool.invoke(task);
+            } catch (RuntimeException e) {
+                throw unwrap(e);
+            }
+        }
+
+        int total = 0;
+        for (List<Crime> part : parts) {
+            total += part.size();
+        }
+        List<Crime> matches = new ArrayList<>(total);
+        for (List<Crime> part : parts) {
+            matches.addAll(part);
+        }
+
+        long elapsed = Math.max(1, System.nanoTime() - started);
+        long perSecond = size * 1_000_000_000L / elapsed;
+        lastRecordsPerSecond = perSecond;
+        queries.incrementAndGet();
+        recordsScanned.addAndGet(size);
+        scanNanos.addAndGet(elapsed);
+        System.out.println("Scanned " + size + " record(s) for " + label + " in " + elapsed / 1_000_000 + " ms on "
+                + (chunks == 1 ? 1 : Math.min(chunks, pool.getParallelism())) + " thread(s): "
+                + matches.size() + " match(es), " + perSecond + " records/s");
+        return matches;
+    }
+
+    // An exception thrown on a worker is rethrown as a copy wrapping the original; surface the original
+    private static RuntimeException unwrap(RuntimeException e) {
+        Throwable cause = e.getCause();
+        return cause != null && cause.getClass() == e.getClass() ? (RuntimeException) cause : e;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public long getQueries() {
+        return queries.get();
+    }
+
+    public long getRecordsScanned() {
+        return recordsScanned.get();
+    }
+
+    // Throughput over every scan so far
+    public long getRecordsPerSecond() {
+        long nanos = scanNanos.get();
+        return nanos == 0 ? 0 : recordsScanned.get() * 1_000_000_000L / nanos;
+    }
+
+    public long getLastRecordsPerSecond() {
+        return lastRecordsPerSecond;
+    }
+
+    private interface Source {
+        void forEachInRange(int from, int to, Consumer<Crime> action);
+    }
+
+    // Splits the chunk range in halves; each leaf chunk fills its own slot in parts
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Source source;
+        private final Predicate<Crime> predicate;
+        private final List<List<Crime>> parts;
+        private final int firstChunk;
+        private final int endChunk;
+        private final int size;
+
+        ScanTask(Source source, Predicate<Crime> predicate, List<List<Crime>> parts, int firstChunk, int endChunk, int size) {
+            this.source = source;
+            this.predicate = predicate;
+            this.parts = parts;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+            this.size = size;
+        }
+
+        @Override
+        protected void compute() {
+            if (endChunk - firstChunk > 1) {
+                int middle = (firstChunk + endChunk) >>> 1;
+                invokeAll(new ScanTask(source, predicate, parts, firstChunk, middle, size),
+                        new ScanTask(source, predicate, parts, middle, endChunk, size));
+                return;
+            }
+            List<Crime> matches = new ArrayList<>();
+            int from = firstChunk * CHUNK_SIZE;
+            source.forEachInRange(from, Math.min(size, from + CHUNK_SIZE), crime -> {
+                if (predicate.test(crime)) {
+                    matches.add(crime);
+                }
+            });
+            parts.set(firstChunk, matches);
+        }
+    }
+}
@@ -2,23 +2,49 @@ package com.crimemanagement.service;
 
 import com.crimemanagement.config.DatabaseConfig;
 import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.CrimePage;
+import com.crimemanagement.util.CrimeDocumentMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CrimeService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_BULK_BATCH_SIZE = Integer.getInteger("crime.bulk.batchSize", 1000);
+    private static final long SNAPSHOT_INTERVAL_MS = Long.getLong("crime.snapshot.intervalMs", 300_000L);
+    
     private MongoCollection<Document> crimesCollection;
-    private ArrayList<Crime> crimeList; // In-memory storage
-    private Stack<Crime> crimeStack; // For latest-first display
+    private final CrimeStore crimeStore; // In-memory storage keyed by id, ordered by createdAt
+    private final CrimeLoader crimeLoader;
+    private final CrimeChangeStreamWatcher changeStreamWatcher;
+    private WriteBehindJournal writeBehindJournal; // null unless write-behind mode is on
+    private final RecordSnapshotFile snapshotFile; // null when warm start is off
+    private final Object snapshotLock = new Object();
+    private long savedSnapshotVersion = -1;
+    private Thread snapshotWriter;
+    private final List<CrimeMutationListener> mutationListeners = new CopyOnWriteArrayList<>();
     private WebSocketService webSocketService;
+    private final AtomicLong lookupHits = new AtomicLong();
+    private final AtomicLong lookupMisses = new AtomicLong();
     
     public CrimeService() {
         this(null);
@@ -26,8 +52,25 @@ public class CrimeService {
 
     public CrimeService(WebSocketService webSocketService) {
         this.crimesCollection = DatabaseConfig.getCrimesCollection();
-        this.crimeList = new ArrayList<>();
-        this.crimeStack = new Stack<>();
+        // The store notifies the listeners itself, under its lock, so they see each record's changes in order
+        this.crimeStore = new CrimeStore(new CrimeMutationListener() {
+            @Override
+            public void onCrimeSaved(Crime previous, Crime current) {
+                for (CrimeMutationListener listener : mutationListeners) {
+                    listener.onCrimeSaved(previous, current);
+                }
+            }
+            
+            @Override
+            public void onCrimeRemoved(Crime removed) {
+                for (CrimeMutationListener listener : mutationListeners) {
+                    listener.onCrimeRemoved(removed);
+                }
+            }
+        });
+        this.snapshotFile = RecordSnapshotFile.isEnabled() ? new RecordSnapshotFile() : null;
+        this.crimeLoader = new CrimeLoader(crimesCollection, crimeStore, snapshotFile);
+        this.changeStreamWatcher = new CrimeChangeStreamWatcher(crimesCollection, this);
         this.webSocketService = webSocketService;
         
         // Register this instance with the shared holder only if not already set (preserve console instance)
@@ -40,7 +83,100 @@ public class CrimeService {
             this.webSocketService = SharedServiceHolder.getWebSocketService();
         }
         
-        loadCrimesFromDatabase();
+        // Replay unflushed journal entries before loading so the load sees them
+        if (WriteBehindJournal.isEnabled()) {
+            try {
+                WriteBehindJournal journal = new WriteBehindJournal(crimesCollection);
+                journal.open();
+                this.writeBehindJournal = journal;
+            } catch (Exception e) {
+                System.err.println("Write-behind journal unavailable, writing synchronously: " + e.getMessage());
+            }
+        }
+        
+        // Watch before loading so nothing written by another process in between is missed
+        if (Boolean.parseBoolean(System.getProperty("crime.changeStream.enabled", "true"))) {
+            changeStreamWatcher.start();
+        }
+        
+        // Records stream in on background threads; the console is usable meanwhile
+        crimeLoader.start();
+        
+        if (snapshotFile != null) {
+            snapshotWriter = new Thread(this::writeSnapshots, "crime-snapshot-writer");
+            snapshotWriter.setDaemon(true);
+            snapshotWriter.start();
+        }
+    }
+    
+    // Saves once the load completes, then periodically while records keep changing
+    private void writeSnapshots() {
+        try {
+            crimeLoader.awaitFinished(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            while (!Thread.currentThread().isInterrupted()) {
+                saveSnapshot();
+                Thread.sleep(SNAPSHOT_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Writes every record to the warm-start file. Skipped while loading, after a failed
+    // load (the store would be incomplete) and when nothing changed since the last save.
+    public boolean saveSnapshot() {
+        if (snapshotFile == null || !crimeLoader.isFinished() || crimeLoader.hasFailed()) {
+            return false;
+        }
+        synchronized (snapshotLock) {
+            long savedAt = System.currentTimeMillis();
+            CrimeSnapshot snapshot = crimeStore.snapshot();
+            if (snapshot.getVersion() == savedSnapshotVersion) {
+                return false;
+            }
+            long started = System.currentTimeMillis();
+            try {
+                snapshotFile.write(snapshot, savedAt);
+                savedSnapshotVersion = snapshot.getVersion();
+                System.out.println("Saved " + snapshot.size() + " crime records to " + snapshotFile.getPath()
+                        + " in " + (System.currentTimeMillis() - started) + " ms.");
+                return true;
+            } catch (IOException e) {
+                System.err.println("Could not save record snapshot " + snapshotFile.getPath() + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+    
+    public void addMutationListener(CrimeMutationListener listener) {
+        mutationListeners.add(listener);
+    }
+    
+    public void removeMutationListener(CrimeMutationListener listener) {
+        mutationListeners.remove(listener);
+    }
+    
+    public void shutdown() {
+        if (snapshotWriter != null) {
+            snapshotWriter.interrupt();
+        }
+        saveSnapshot();
+        changeStreamWatcher.stop();
+        if (writeBehindJournal != null) {
+            writeBehindJournal.close();
+        }
+    }
+    
+    public boolean isWriteBehindEnabled() {
+        return writeBehindJournal != null;
+    }
+    
+    public long getPendingWriteCount() {
+        return writeBehindJournal != null ? writeBehindJournal.getPendingCount() : 0;
+    }
+    
+    public long getRejectedWriteCount() {
+        return writeBehindJournal != null ? writeBehindJournal.getRejectedCount() : 0;
     }
     
     public void setWebSocketService(WebSocketService webSocketService) {
@@ -54,21 +190,21 @@ public class CrimeService {
             Crime crime = new Crime(name, city, crimeType, details, photoPath);
             
             // Save to MongoDB
-            Document crimeDoc = new Document("name", name)
-                    .append("city", city)
-                    .append("crimeType", crimeType)
-                    .append("details", details)
-                    .append("photoPath", photoPath)
-                    .append("createdAt", Date.from(crime.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+            Document crimeDoc = CrimeDocumentMapper.toDocument(crime);
             
-            crimesCollection.insertOne(crimeDoc);
+            if (writeBehindJournal != null) {
+                // Id generated here; the flusher writes the document later
+                crimeDoc.append("_id", new ObjectId());
+                writeBehindJournal.appendInsert(crimeDoc);
+            } else {
+                crimesCollection.insertOne(crimeDoc);
+            }
             
             // Set the generated ID
             crime.setId(crimeDoc.getObjectId("_id").toString());
             
             // Add to in-memory structures
-            crimeList.add(crime);
-            crimeStack.push(crime);
+            crimeStore.put(crime);
             
             System.out.println("Crime record added successfully!");
             System.out.println("Record ID: " + crime.getId());
@@ -86,18 +222,129 @@ public class CrimeService {
         }
     }
     
+    public int addCrimes(Collection<Crime> crimes) {
+        return addCrimes(crimes, DEFAULT_BULK_BATCH_SIZE);
+    }
+    
+    // Bulk path: unordered insertMany per batch, one store update and one notification per batch.
+    // In write-behind mode each batch is journaled instead (one fsync per batch), so imports stay
+    // in order with single-record writes. Returns the number of records inserted; records
+    // rejected by the server are skipped.
+    public int addCrimes(Collection<Crime> crimes, int batchSize) {
+        int size = Math.max(1, batchSize);
+        int inserted = 0;
+        List<Crime> batch = new ArrayList<>(Math.min(size, crimes.size()));
+        for (Crime crime : crimes) {
+            batch.add(crime);
+            if (batch.size() == size) {
+                inserted += insertBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            inserted += insertBatch(batch);
+        }
+        return inserted;
+    }
+    
+    private int insertBatch(List<Crime> batch) {
+        List<Document> docs = new ArrayList<>(batch.size());
+        for (Crime crime : batch) {
+            // Ids assigned up front, so a batch that fails midway can be checked id by id
+            docs.add(CrimeDocumentMapper.toDocument(crime).append("_id", new ObjectId()));
+        }
+        
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            if (writeBehindJournal != null) {
+                writeBehindJournal.appendInserts(docs);
+            } else {
+                crimesCollection.insertMany(docs, new InsertManyOptions().ordered(false));
+            }
+        } catch (IllegalStateException e) {
+            // Journal write failed; nothing of the batch was acknowledged
+            System.err.println("Error journaling crime batch: " + e.getMessage());
+            return 0;
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failedIndexes.add(error.getIndex());
+            }
+            System.err.println("Bulk insert: " + failedIndexes.size() + " of " + docs.size()
+                    + " record(s) rejected: " + e.getWriteErrors().get(0).getMessage());
+        } catch (Exception e) {
+            // A network error or timeout can leave part of an unordered batch written
+            System.err.println("Error inserting crime batch: " + e.getMessage());
+            try {
+                failedIndexes = unstoredIndexes(docs);
+            } catch (Exception recheck) {
+                System.err.println("Could not check which records of the batch were stored: " + recheck.getMessage());
+                return 0;
+            }
+            System.err.println("Bulk insert: " + (docs.size() - failedIndexes.size()) + " of " + docs.size()
+                    + " record(s) were stored before the error.");
+        }
+        
+        List<Crime> stored = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                Crime crime = batch.get(i);
+                crime.setId(docs.get(i).getObjectId("_id").toString());
+                stored.add(crime);
+            }
+        }
+        
+        List<Crime> replaced = crimeStore.putAll(stored);
+        if (!replaced.isEmpty()) {
+            // Already applied from the change stream or a lookup; listeners were told what was replaced
+            System.out.println("Bulk insert: " + replaced.size() + " record(s) were already in memory.");
+        }
+        if (!stored.isEmpty() && webSocketService != null) {
+            webSocketService.notifyCrimeUpdate();
+        }
+        return stored.size();
+    }
+    
+    // Positions in docs whose _id is not in the collection
+    private Set<Integer> unstoredIndexes(List<Document> docs) {
+        List<ObjectId> ids = new ArrayList<>(docs.size());
+        for (Document doc : docs) {
+            ids.add(doc.getObjectId("_id"));
+        }
+        Set<ObjectId> found = new HashSet<>();
+        for (Document doc : crimesCollection.find(Filters.in("_id", ids)).projection(Projections.include("_id"))) {
+            found.add(doc.getObjectId("_id"));
+        }
+        Set<Integer> missing = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (!found.contains(ids.get(i))) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+    
     public boolean editCrime(String crimeId, String name, String city, String crimeType, String details, String photoPath) {
         try {
             ObjectId objectId = new ObjectId(crimeId);
             Document query = new Document("_id", objectId);
             
-            Document update = new Document("$set", new Document("name", name)
+            Document fields = new Document("name", name)
                     .append("city", city)
                     .append("crimeType", crimeType)
                     .append("details", details)
-                    .append("photoPath", photoPath));
+                    .append("photoPath", photoPath)
+                    // Lets a warm start find records edited after its snapshot was saved
+                    .append("updatedAt", new Date());
             
-            long modifiedCount = crimesCollection.updateOne(query, update).getModifiedCount();
+            long modifiedCount;
+            if (writeBehindJournal != null) {
+                modifiedCount = existsForWriteBehind(crimeId) ? 1 : 0;
+                if (modifiedCount > 0) {
+                    writeBehindJournal.appendUpdate(crimeId, fields);
+                }
+            } else {
+                modifiedCount = crimesCollection.updateOne(query, new Document("$set", fields)).getModifiedCount();
+            }
             
             if (modifiedCount > 0) {
                 // Update in-memory structures
@@ -123,7 +370,15 @@ public class CrimeService {
             ObjectId objectId = new ObjectId(crimeId);
             Document query = new Document("_id", objectId);
             
-            long deletedCount = crimesCollection.deleteOne(query).getDeletedCount();
+            long deletedCount;
+            if (writeBehindJournal != null) {
+                deletedCount = existsForWriteBehind(crimeId) ? 1 : 0;
+                if (deletedCount > 0) {
+                    writeBehindJournal.appendDelete(crimeId);
+                }
+            } else {
+                deletedCount = crimesCollection.deleteOne(query).getDeletedCount();
+            }
             
             if (deletedCount > 0) {
                 // Remove from in-memory structures
@@ -145,49 +400,82 @@ public class CrimeService {
         }
     }
     
+    // Write-behind edits and deletes are checked against memory, not the database; only while
+    // the load is still running can a record exist that the store does not hold yet
+    private boolean existsForWriteBehind(String crimeId) {
+        if (crimeStore.get(crimeId) != null) {
+            return true;
+        }
+        if (isLoadComplete()) {
+            return false;
+        }
+        return crimesCollection.find(new Document("_id", new ObjectId(crimeId)))
+                .projection(Projections.include("_id"))
+                .first() != null;
+    }
+    
+    // Oldest first; an immutable view of the current snapshot, not a copy
     public List<Crime> getAllCrimes() {
-        return new ArrayList<>(crimeList);
+        return crimeStore.ascending();
+    }
+    
+    // Stable, versioned view of every record; later writes publish a new snapshot
+    public CrimeSnapshot getSnapshot() {
+        return crimeStore.snapshot();
+    }
+    
+    // Changes whenever any record is added, edited or removed
+    public long getSnapshotVersion() {
+        return crimeStore.version();
     }
     
     public Stack<Crime> getCrimesStack() {
-        // Return a copy to prevent external modification
+        // Oldest at the bottom, latest on top; Stack is mutable, so this one is still a copy
         Stack<Crime> stackCopy = new Stack<>();
-        stackCopy.addAll(crimeStack);
+        stackCopy.addAll(crimeStore.ascending());
         return stackCopy;
     }
     
     public Crime getCrimeById(String crimeId) {
-        try {
-            ObjectId objectId = new ObjectId(crimeId);
-            Document query = new Document("_id", objectId);
-            Document crimeDoc = crimesCollection.find(query).first();
-            
-            if (crimeDoc != null) {
-                return documentToCrime(crimeDoc);
-            }
-        } catch (Exception e) {
-            System.err.println("Error retrieving crime record: " + e.getMessage());
-        }
-        return null;
-    }
-    
-    public void displayAllCrimes() {
-        if (crimeStack.isEmpty()) {
-            System.out.println("No crime records found.");
-            return;
+        if (crimeId == null || !ObjectId.isValid(crimeId)) {
+            return null;
         }
         
-        System.out.println("\n=== CRIME RECORDS (Latest First) ===");
-        Stack<Crime> tempStack = new Stack<>();
-        tempStack.addAll(crimeStack);
+        // Primary-key lookup served from memory; callers get a copy they are free to modify
+        Crime cached = crimeStore.get(crimeId);
+        if (cached != null) {
+            lookupHits.incrementAndGet();
+            return new Crime(cached);
+        }
         
-        int count = 1;
-        while (!tempStack.isEmpty()) {
-            Crime crime = tempStack.pop();
-            System.out.println("\n" + count + ". Crime Record:");
-            displayCrimeDetails(crime);
-            count++;
+        lookupMisses.incrementAndGet();
+        Crime crime = findInDatabase(crimeId);
+        if (crime != null) {
+            // Written by another process since startup: keep it for the next lookup
+            crimeStore.put(crime);
+            return new Crime(crime);
         }
+        return null;
+    }
+    
+    public long getLookupHits() {
+        return lookupHits.get();
+    }
+    
+    public long getLookupMisses() {
+        return lookupMisses.get();
+    }
+    
+    public double getLookupHitRatio() {
+        long hits = lookupHits.get();
+        long total = hits + lookupMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    // Latest first, keyset paginated: pass the previous page's next cursor (or null for the first page)
+    public CrimePage getCrimesPage(String afterCursor, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return crimeStore.pageDescending(afterCursor, pageSize);
     }
     
     public void displayCrimeDetails(Crime crime) {
@@ -201,115 +489,85 @@ public class CrimeService {
         System.out.println("   " + "-".repeat(50));
     }
     
-    private void loadCrimesFromDatabase() {
-        try {
-            crimeList.clear();
-            crimeStack.clear();
-            
-            // Load crimes sorted by creation date (newest first)
-            for (Document doc : crimesCollection.find().sort(Sorts.descending("createdAt"))) {
-                Crime crime = documentToCrime(doc);
-                crimeList.add(crime);
-                crimeStack.push(crime);
-            }
-            
-            System.out.println("Loaded " + crimeList.size() + " crime records from database.");
-            
-        } catch (Exception e) {
-            System.err.println("Error loading crimes from database: " + e.getMessage());
+    public boolean isLoadComplete() {
+        return crimeLoader.isFinished();
+    }
+    
+    public CrimeLoader getLoader() {
+        return crimeLoader;
+    }
+    
+    // Applies an insert/update/replace observed on the change stream
+    void applyRemoteUpsert(Crime incoming) {
+        // Checked and stored in one step, so a local save of the same id cannot slip in between
+        if (!crimeStore.putIfChanged(incoming, CrimeService::sameContent)) {
+            return; // Echo of a write this process already applied
+        }
+        if (webSocketService != null) {
+            webSocketService.notifyCrimeUpdate();
         }
     }
     
-    private Crime documentToCrime(Document doc) {
-        Crime crime = new Crime();
-        crime.setId(doc.getObjectId("_id").toString());
-        crime.setName(doc.getString("name"));
-        crime.setCity(doc.getString("city"));
-        crime.setCrimeType(doc.getString("crimeType"));
-        crime.setDetails(doc.getString("details"));
-        crime.setPhotoPath(doc.getString("photoPath"));
-        
-        Date createdAt = doc.getDate("createdAt");
-        if (createdAt != null) {
-            crime.setCreatedAt(LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault()));
+    // Applies a delete observed on the change stream
+    void applyRemoteDelete(String crimeId) {
+        if (removeFromInMemoryStructures(crimeId) && webSocketService != null) {
+            webSocketService.notifyCrimeUpdate();
         }
-        
-        return crime;
     }
     
     private void updateInMemoryStructures(String crimeId, String name, String city, String crimeType, String details, String photoPath) {
-        // Update in ArrayList
-        for (Crime crime : crimeList) {
-            if (crime.getId().equals(crimeId)) {
-                crime.setName(name);
-                crime.setCity(city);
-                crime.setCrimeType(crimeType);
-                crime.setDetails(details);
-                crime.setPhotoPath(photoPath);
-                break;
-            }
-        }
-        
-        // Update in Stack (recreate stack to maintain order)
-        Stack<Crime> newStack = new Stack<>();
-        Stack<Crime> tempStack = new Stack<>();
-        
-        // Reverse the stack to maintain order
-        while (!crimeStack.isEmpty()) {
-            tempStack.push(crimeStack.pop());
+        // Replace rather than mutate so listeners can see both versions;
+        // createdAt is never edited, so the record keeps its position in the ordered store
+        Crime existing = crimeStore.get(crimeId);
+        if (existing == null && !isLoadComplete()) {
+            // Not loaded yet: a batch read before the edit may still be published, and
+            // putAllIfAbsent skips it only once the edited version is in the store
+            existing = findInDatabase(crimeId);
         }
-        
-        while (!tempStack.isEmpty()) {
-            Crime crime = tempStack.pop();
-            if (crime.getId().equals(crimeId)) {
-                crime.setName(name);
-                crime.setCity(city);
-                crime.setCrimeType(crimeType);
-                crime.setDetails(details);
-                crime.setPhotoPath(photoPath);
-            }
-            newStack.push(crime);
+        if (existing != null) {
+            Crime updated = new Crime(existing);
+            updated.setName(name);
+            updated.setCity(city);
+            updated.setCrimeType(crimeType);
+            updated.setDetails(details);
+            updated.setPhotoPath(photoPath);
+            crimeStore.put(updated);
         }
-        
-        crimeStack = newStack;
     }
     
-    private void removeFromInMemoryStructures(String crimeId) {
-        // Remove from ArrayList
-        crimeList.removeIf(crime -> crime.getId().equals(crimeId));
-        
-        // Remove from Stack (recreate stack)
-        Stack<Crime> newStack = new Stack<>();
-        Stack<Crime> tempStack = new Stack<>();
-        
-        while (!crimeStack.isEmpty()) {
-            tempStack.push(crimeStack.pop());
-        }
-        
-        while (!tempStack.isEmpty()) {
-            Crime crime = tempStack.pop();
-            if (!crime.getId().equals(crimeId)) {
-                newStack.push(crime);
-            }
+    // The stored document; in write-behind mode it may not carry this process's pending writes yet
+    private Crime findInDatabase(String crimeId) {
+        try {
+            Document crimeDoc = crimesCollection.find(new Document("_id", new ObjectId(crimeId)))
+                    .projection(CrimeDocumentMapper.CRIME_PROJECTION)
+                    .first();
+            return crimeDoc != null ? CrimeDocumentMapper.toCrime(crimeDoc) : null;
+        } catch (Exception e) {
+            System.err.println("Error retrieving crime record: " + e.getMessage());
+            return null;
         }
-        
-        crimeStack = newStack;
+    }
+    
+    private boolean removeFromInMemoryStructures(String crimeId) {
+        crimeLoader.markRemoved(crimeId);
+        return crimeStore.remove(crimeId) != null;
+    }
+    
+    private static boolean sameContent(Crime a, Crime b) {
+        return Objects.equals(a.getName(), b.getName())
+                && a.getCityCode() == b.getCityCode()
+                && a.getCrimeTypeCode() == b.getCrimeTypeCode()
+                && Objects.equals(a.getDetails(), b.getDetails())
+                && Objects.equals(a.getPhotoPath(), b.getPhotoPath())
+                && a.getCreatedAtMillis() == b.getCreatedAtMillis();
     }
     
     public int getTotalCrimeCount() {
-        return crimeList.size();
+        return crimeStore.size();
     }
     
     public List<Crime> getAllCrimesInFIFOOrder() {
-        List<Crime> fifoList = new ArrayList<>();
-        Stack<Crime> tempStack = new Stack<>();
-        tempStack.addAll(crimeStack);
-        
-        // Pop from stack to get FIFO order (latest first)
-        while (!tempStack.isEmpty()) {
-            fifoList.add(tempStack.pop());
-        }
-        
-        return fifoList;
+        // Latest first; an immutable view of the current snapshot
+        return crimeStore.descending();
     }
 }
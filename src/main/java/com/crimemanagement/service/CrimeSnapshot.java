@@ -0,0 +1,263 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, versioned view of every record ordered by (createdAt, id).
+ * Records live in fixed-size copy-on-write segments: a writer copies only the
+ * segment it touches plus the segment table and publishes a new version, so
+ * readers holding an older snapshot keep a stable view without copying anything.
+ */
+public final class CrimeSnapshot {
+    // Works on the raw millis and id bytes, so comparisons allocate nothing
+    static final Comparator<Crime> ORDER = (a, b) -> {
+        int cmp = Long.compare(a.getCreatedAtMillis(), b.getCreatedAtMillis());
+        return cmp != 0 ? cmp : a.compareIdTo(b);
+    };
+
+    private static final int SEGMENT_SIZE = 512;
+    private static final Crime[][] NO_SEGMENTS = new Crime[0][];
+
+    static final CrimeSnapshot EMPTY = new CrimeSnapshot(0, NO_SEGMENTS);
+
+    private final long version;
+    private final Crime[][] segments;
+    private final int[] offsets; // offsets[i] = number of records before segment i
+    private final int size;
+
+    private CrimeSnapshot(long version, Crime[][] segments) {
+        this.version = version;
+        this.segments = segments;
+        this.offsets = new int[segments.length];
+        int total = 0;
+        for (int i = 0; i < segments.length; i++) {
+            offsets[i] = total;
+            total += segments[i].length;
+        }
+        this.size = total;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Ascending position, 0 = oldest
+    public Crime get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int segment = segmentOf(index);
+        return segments[segment][index - offsets[segment]];
+    }
+
+    // Oldest first; an unmodifiable view, not a copy
+    public List<Crime> ascending() {
+        return new View(false);
+    }
+
+    // Latest first; an unmodifiable view, not a copy
+    public List<Crime> descending() {
+        return new View(true);
+    }
+
+    // Visits positions [from, to) in ascending order, walking the segments directly
+    void forEachInRange(int from, int to, Consumer<Crime> action) {
+        if (from >= to) {
+            return;
+        }
+        int segment = segmentOf(from);
+        int position = from - offsets[segment];
+        for (int remaining = to - from; remaining > 0; segment++, position = 0) {
+            Crime[] records = segments[segment];
+            int end = Math.min(records.length, position + remaining);
+            for (int i = position; i < end; i++) {
+                action.accept(records[i]);
+            }
+            remaining -= end - position;
+        }
+    }
+
+    // Ascending position of the first record ordered after the given one (size if none)
+    int positionAfter(Crime probe) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(get(mid), probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    CrimeSnapshot withInserted(Crime crime) {
+        return withInserted(List.of(crime));
+    }
+
+    // Merges a batch into the segments it falls into; all other segments are shared
+    CrimeSnapshot withInserted(List<Crime> crimes) {
+        if (crimes.isEmpty()) {
+            return this;
+        }
+        List<Crime> sorted = new ArrayList<>(crimes);
+        sorted.sort(ORDER);
+
+        if (segments.length == 0) {
+            return new CrimeSnapshot(version + 1, chunk(sorted.toArray(new Crime[0])));
+        }
+
+        List<Crime[]> result = new ArrayList<>(segments.length + sorted.size() / SEGMENT_SIZE + 1);
+        int next = 0;
+        for (int s = 0; s < segments.length; s++) {
+            Crime[] segment = segments[s];
+            // Everything up to this segment's last record (or the rest, for the final segment) merges here
+            int end = next;
+            if (s == segments.length - 1) {
+                end = sorted.size();
+            } else {
+                Crime last = segment[segment.length - 1];
+                while (end < sorted.size() && ORDER.compare(sorted.get(end), last) < 0) {
+                    end++;
+                }
+            }
+            if (end == next) {
+                result.add(segment);
+                continue;
+            }
+            Crime[] merged = merge(segment, sorted.subList(next, end));
+            result.addAll(Arrays.asList(chunk(merged)));
+            next = end;
+        }
+        return new CrimeSnapshot(version + 1, result.toArray(NO_SEGMENTS));
+    }
+
+    CrimeSnapshot withReplaced(Crime previous, Crime current) {
+        if (ORDER.compare(previous, current) != 0) {
+            return withRemoved(previous).withInserted(current);
+        }
+        int index = indexOf(previous);
+        if (index < 0) {
+            return withInserted(current);
+        }
+        int segment = segmentOf(index);
+        Crime[] copy = segments[segment].clone();
+        copy[index - offsets[segment]] = current;
+        Crime[][] table = segments.clone();
+        table[segment] = copy;
+        return new CrimeSnapshot(version + 1, table);
+    }
+
+    CrimeSnapshot withRemoved(Crime crime) {
+        int index = indexOf(crime);
+        if (index < 0) {
+            return this;
+        }
+        int segment = segmentOf(index);
+        Crime[] source = segments[segment];
+        int position = index - offsets[segment];
+
+        if (source.length == 1) {
+            Crime[][] table = new Crime[segments.length - 1][];
+            System.arraycopy(segments, 0, table, 0, segment);
+            System.arraycopy(segments, segment + 1, table, segment, segments.length - segment - 1);
+            return new CrimeSnapshot(version + 1, table);
+        }
+
+        Crime[] copy = new Crime[source.length - 1];
+        System.arraycopy(source, 0, copy, 0, position);
+        System.arraycopy(source, position + 1, copy, position, source.length - position - 1);
+        Crime[][] table = segments.clone();
+        table[segment] = copy;
+        return new CrimeSnapshot(version + 1, table);
+    }
+
+    private int indexOf(Crime crime) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = ORDER.compare(get(mid), crime);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int segmentOf(int index) {
+        int position = Arrays.binarySearch(offsets, index);
+        // Segments are never empty, so offsets are strictly increasing
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private static Crime[] merge(Crime[] segment, List<Crime> sortedInserts) {
+        Crime[] merged = new Crime[segment.length + sortedInserts.size()];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < segment.length && j < sortedInserts.size()) {
+            merged[k++] = ORDER.compare(segment[i], sortedInserts.get(j)) <= 0 ? segment[i++] : sortedInserts.get(j++);
+        }
+        while (i < segment.length) {
+            merged[k++] = segment[i++];
+        }
+        while (j < sortedInserts.size()) {
+            merged[k++] = sortedInserts.get(j++);
+        }
+        return merged;
+    }
+
+    // Segments may grow to twice the nominal size before a write splits them
+    private static Crime[][] chunk(Crime[] records) {
+        if (records.length <= SEGMENT_SIZE * 2) {
+            return new Crime[][] {records};
+        }
+        int count = (records.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        Crime[][] chunks = new Crime[count][];
+        for (int c = 0; c < count; c++) {
+            int from = c * SEGMENT_SIZE;
+            chunks[c] = Arrays.copyOfRange(records, from, Math.min(records.length, from + SEGMENT_SIZE));
+        }
+        return chunks;
+    }
+
+    private final class View extends AbstractList<Crime> implements RandomAccess {
+        private final boolean reversed;
+
+        private View(boolean reversed) {
+            this.reversed = reversed;
+        }
+
+        @Override
+        public Crime get(int index) {
+            return CrimeSnapshot.this.get(reversed ? size - 1 - index : index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.CrimePage;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Single in-memory home for crime records: a hash index by id for O(1) lookups
+ * plus an immutable, versioned {@link CrimeSnapshot} ordered by (createdAt, id).
+ * Writers are serialised and publish a new snapshot atomically; readers just
+ * grab the current one and never copy or lock. The listener is told about each
+ * change before the write lock is released, so notifications for a record arrive
+ * in the order its changes were applied and always name the version replaced.
+ */
+public class CrimeStore {
+    // Keyed by ObjectId rather than its 24-char hex string, which would cost more than the record
+    private final Map<ObjectId, Crime> byId = new ConcurrentHashMap<>();
+    private volatile CrimeSnapshot snapshot = CrimeSnapshot.EMPTY;
+    private final CrimeMutationListener listener;
+
+    public CrimeStore() {
+        this(null);
+    }
+
+    // The listener runs under the store's lock and must not write to the store
+    public CrimeStore(CrimeMutationListener listener) {
+        this.listener = listener;
+    }
+
+    // Returns the record this one replaced, or null
+    public synchronized Crime put(Crime crime) {
+        Crime previous = byId.put(crime.getObjectId(), crime);
+        snapshot = previous != null ? snapshot.withReplaced(previous, crime) : snapshot.withInserted(crime);
+        fireSaved(previous, crime);
+        return previous;
+    }
+
+    // Stores the record unless the current version for its id is the same by sameContent
+    // (an echo of a change already applied); returns whether it was stored
+    public synchronized boolean putIfChanged(Crime crime, BiPredicate<Crime, Crime> sameContent) {
+        Crime existing = byId.get(crime.getObjectId());
+        if (existing != null && sameContent.test(existing, crime)) {
+            return false;
+        }
+        put(crime);
+        return true;
+    }
+
+    // Returns the records replaced by this call (an empty list when every one was new)
+    public synchronized List<Crime> putAll(Collection<Crime> crimes) {
+        List<Crime> inserted = new ArrayList<>(crimes.size());
+        List<Crime> replaced = new ArrayList<>();
+        for (Crime crime : crimes) {
+            Crime previous = byId.put(crime.getObjectId(), crime);
+            if (previous != null) {
+                snapshot = snapshot.withReplaced(previous, crime);
+                replaced.add(previous);
+            } else {
+                inserted.add(crime);
+            }
+            fireSaved(previous, crime);
+        }
+        snapshot = snapshot.withInserted(inserted);
+        return replaced;
+    }
+
+    // Bulk publish that never overwrites a record written by the application meanwhile;
+    // returns the records that were actually added
+    public synchronized List<Crime> putAllIfAbsent(Collection<Crime> crimes) {
+        List<Crime> inserted = new ArrayList<>(crimes.size());
+        for (Crime crime : crimes) {
+            if (byId.putIfAbsent(crime.getObjectId(), crime) == null) {
+                inserted.add(crime);
+            }
+        }
+        snapshot = snapshot.withInserted(inserted);
+        for (Crime crime : inserted) {
+            fireSaved(null, crime);
+        }
+        return inserted;
+    }
+
+    public synchronized Crime remove(String crimeId) {
+        if (crimeId == null || !ObjectId.isValid(crimeId)) {
+            return null;
+        }
+        Crime removed = byId.remove(new ObjectId(crimeId));
+        if (removed != null) {
+            snapshot = snapshot.withRemoved(removed);
+            if (listener != null) {
+                listener.onCrimeRemoved(removed);
+            }
+        }
+        return removed;
+    }
+
+    private void fireSaved(Crime previous, Crime current) {
+        if (listener != null) {
+            listener.onCrimeSaved(previous, current);
+        }
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        snapshot = CrimeSnapshot.EMPTY;
+    }
+
+    public Crime get(String crimeId) {
+        return crimeId != null && ObjectId.isValid(crimeId) ? byId.get(new ObjectId(crimeId)) : null;
+    }
+
+    // Stable view of every record at the moment of the call
+    public CrimeSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public long version() {
+        return snapshot.getVersion();
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    // Oldest first (insertion / FIFO order)
+    public List<Crime> ascending() {
+        return snapshot.ascending();
+    }
+
+    // Latest first (stack / LIFO order)
+    public List<Crime> descending() {
+        return snapshot.descending();
+    }
+
+    // Keyset page, latest first: up to limit records strictly older than the cursor
+    // (the first page when cursor is null). Walks only the records it returns.
+    public CrimePage pageDescending(String cursor, int limit) {
+        CrimeSnapshot current = snapshot;
+        int start = current.size() - 1;
+        Crime after = fromCursor(cursor);
+        if (after != null) {
+            // positionAfter gives the first record newer than the cursor; step below it,
+            // skipping the cursor record itself when it still exists
+            start = current.positionAfter(after) - 1;
+            if (start >= 0 && CrimeSnapshot.ORDER.compare(current.get(start), after) == 0) {
+                start--;
+            }
+        }
+
+        List<Crime> crimes = new ArrayList<>(Math.min(limit, Math.max(0, start + 1)));
+        int index = start;
+        while (index >= 0 && crimes.size() < limit) {
+            crimes.add(current.get(index--));
+        }
+        String nextCursor = index >= 0 && !crimes.isEmpty() ? toCursor(crimes.get(crimes.size() - 1)) : null;
+        return new CrimePage(crimes, nextCursor);
+    }
+
+    // Cursor format: <createdAt epoch millis>_<id>
+    static String toCursor(Crime crime) {
+        return crime.getCreatedAtMillis() + "_" + crime.getId();
+    }
+
+    static Crime fromCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int separator = cursor.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed page cursor: " + cursor);
+        }
+        long millis = Long.parseLong(cursor.substring(0, separator));
+        Crime probe = new Crime();
+        probe.setId(cursor.substring(separator + 1));
+        probe.setCreatedAtMillis(millis);
+        return probe;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crimemanagement.service;
+
+import java.util.Locale;
+
+/**
+ * How a search term is compared with a field. EXACT, PREFIX and CONTAINS treat
+ * the term as literal text (case-insensitive); only REGEX interprets it as a
+ * pattern, which is checked by RegexGuard before it runs.
+ */
+public enum MatchMode {
+    EXACT,
+    PREFIX,
+    CONTAINS,
+    REGEX;
+
+    // Case-insensitive name as used by the web "match" parameter; null or blank gives null
+    public static MatchMode parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown match mode: " + value);
+        }
+    }
+
+    // Literal modes only; both arguments already lower-cased
+    boolean matchesLiteral(String key, String term) {
+        switch (this) {
+            case EXACT:
+                return key.equals(term);
+            case PREFIX:
+                return key.startsWith(term);
+            case CONTAINS:
+                return key.contains(term);
+            default:
+                throw new IllegalStateException(this + " is not a literal mode");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import com.crimemanagement.search.RoaringBitmap;
+
+import java.util.Collections;
+import java.util.List;
+
+// Records filed under one search key, held as a compressed bitmap of record
+// ordinals. Readers share an immutable list view that is resolved at most once
+// after each change, instead of on every lookup.
+class PostingList {
+    private final RecordOrdinals ordinals;
+    private final RoaringBitmap bitmap = new RoaringBitmap();
+    private volatile List<Crime> view;
+
+    PostingList(RecordOrdinals ordinals) {
+        this.ordinals = ordinals;
+    }
+
+    synchronized boolean add(int ordinal) {
+        if (bitmap.contains(ordinal)) {
+            return false;
+        }
+        bitmap.add(ordinal);
+        view = null;
+        return true;
+    }
+
+    synchronized boolean remove(int ordinal) {
+        if (!bitmap.contains(ordinal)) {
+            return false;
+        }
+        bitmap.remove(ordinal);
+        view = null;
+        return true;
+    }
+
+    synchronized int size() {
+        return bitmap.cardinality();
+    }
+
+    synchronized boolean isEmpty() {
+        return bitmap.isEmpty();
+    }
+
+    // The live bitmap; callers combine it with RoaringBitmap's set operations and must not modify it
+    RoaringBitmap bitmap() {
+        return bitmap;
+    }
+
+    List<Crime> view() {
+        List<Crime> current = view;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (view == null) {
+                view = Collections.unmodifiableList(ordinals.resolve(bitmap));
+            }
+            return view;
+        }
+    }
+}
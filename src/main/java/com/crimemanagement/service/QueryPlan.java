@@ -0,0 +1,90 @@
+package com.crimemanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The plan SearchService chose for an advanced search: each criterion with how
+ * it is evaluated and how many records it was estimated to match, in the order
+ * they are applied. toString() is the explain output.
+ */
+public class QueryPlan {
+    public enum Access {
+        // Posting list of one exact key
+        EXACT,
+        // Union of the posting lists whose key starts with the term
+        PREFIX,
+        // Union of the posting lists whose key contains the term
+        CONTAINS,
+        // Pattern evaluated by a parallel scan of the in-memory records
+        SCAN,
+        // Filter evaluated by MongoDB
+        DATABASE
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+    private final List<String> notes = new ArrayList<>();
+
+    void addStep(String field, String term, Access access, long estimate) {
+        steps.add(new Step(field, term, access, estimate));
+    }
+
+    void addNote(String note) {
+        notes.add(note);
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    public List<String> getNotes() {
+        return Collections.unmodifiableList(notes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder explain = new StringBuilder("Query plan:");
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            explain.append("\n  ").append(i + 1).append(". ").append(step.field).append(" '").append(step.term)
+                    .append("' via ").append(step.access)
+                    .append(step.estimate >= 0 ? " (est. " + step.estimate + " records)" : " (est. unknown)");
+        }
+        for (String note : notes) {
+            explain.append("\n  - ").append(note);
+        }
+        return explain.toString();
+    }
+
+    public static class Step {
+        private final String field;
+        private final String term;
+        private final Access access;
+        private final long estimate;
+
+        Step(String field, String term, Access access, long estimate) {
+            this.field = field;
+            this.term = term;
+            this.access = access;
+            this.estimate = estimate;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public Access getAccess() {
+            return access;
+        }
+
+        // -1 when unknown
+        public long getEstimate() {
+            return estimate;
+        }
+    }
+}
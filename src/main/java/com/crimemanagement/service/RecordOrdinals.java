@@ -0,0 +1,89 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import com.crimemanagement.search.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dense int ordinals for the indexed records, so search indexes can be bitmaps.
+// Ordinals of removed records go on a free list and are handed out again, which
+// keeps the ordinal space (and so every bitmap) as small as the live record count.
+// An edited record takes over its previous version's ordinal. Not thread-safe.
+class RecordOrdinals {
+    private Crime[] records = new Crime[1024];
+    private final Map<Crime, Integer> ordinals = new IdentityHashMap<>();
+    private int[] free = new int[64];
+    private int freeCount;
+    private int next;
+
+    // The record's ordinal, assigning one if it has none
+    int assign(Crime crime) {
+        Integer existing = ordinals.get(crime);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = freeCount > 0 ? free[--freeCount] : next++;
+        if (ordinal >= records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        records[ordinal] = crime;
+        ordinals.put(crime, ordinal);
+        return ordinal;
+    }
+
+    // Moves previous's ordinal to current (assigning a fresh one if previous had none)
+    int replace(Crime previous, Crime current) {
+        Integer ordinal = ordinals.remove(previous);
+        if (ordinal == null) {
+            return assign(current);
+        }
+        records[ordinal] = current;
+        ordinals.put(current, ordinal);
+        return ordinal;
+    }
+
+    // Frees the record's ordinal; returns it, or -1 if the record had none
+    int release(Crime crime) {
+        Integer ordinal = ordinals.remove(crime);
+        if (ordinal == null) {
+            return -1;
+        }
+        records[ordinal] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = ordinal;
+        return ordinal;
+    }
+
+    int ordinalOf(Crime crime) {
+        Integer ordinal = ordinals.get(crime);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    Crime get(int ordinal) {
+        return records[ordinal];
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    // Records for every ordinal in the bitmap, in ordinal order
+    List<Crime> resolve(RoaringBitmap bitmap) {
+        List<Crime> crimes = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(ordinal -> crimes.add(records[ordinal]));
+        return crimes;
+    }
+
+    void clear() {
+        Arrays.fill(records, 0, next, null);
+        ordinals.clear();
+        freeCount = 0;
+        next = 0;
+    }
+}
@@ -0,0 +1,218 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary copy of every in-memory record, so a restart can skip re-reading the
+ * whole collection. Layout: header (magic, format version, save time, record
+ * count, largest _id), a dictionary of the distinct cities and crime types,
+ * then the records oldest first with city / crime type as dictionary indexes,
+ * and a CRC32 of everything before it. Written to a temporary file and moved
+ * into place, so a crash mid-save leaves the previous file intact; read through
+ * a memory-mapped buffer.
+ */
+public class RecordSnapshotFile {
+    private static final int MAGIC = 0x43524d53; // "CRMS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL_STRING = -1;
+
+    private final Path path;
+
+    public RecordSnapshotFile() {
+        this(Paths.get(System.getProperty("crime.snapshot.file", "data/crime-snapshot.bin")));
+    }
+
+    public RecordSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("crime.snapshot.enabled", "true"));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // savedAtMillis must be taken before the snapshot was captured, so later edits are newer than it
+    public void write(CrimeSnapshot snapshot, long savedAtMillis) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        ObjectId maxId = null;
+        for (Crime crime : snapshot.ascending()) {
+            addToDictionary(dictionary, values, crime.getCity());
+            addToDictionary(dictionary, values, crime.getCrimeType());
+            ObjectId id = crime.getObjectId();
+            if (maxId == null || id.compareTo(maxId) > 0) {
+                maxId = id;
+            }
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(savedAtMillis);
+            out.writeInt(snapshot.size());
+            out.write(maxId != null ? maxId.toByteArray() : new byte[12]);
+
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(out, value);
+            }
+
+            for (Crime crime : snapshot.ascending()) {
+                out.write(crime.getObjectId().toByteArray());
+                out.writeLong(crime.getCreatedAtMillis());
+                out.writeInt(crime.getCity() != null ? dictionary.get(crime.getCity()) : NULL_STRING);
+                out.writeInt(crime.getCrimeType() != null ? dictionary.get(crime.getCrimeType()) : NULL_STRING);
+                writeString(out, crime.getName());
+                writeString(out, crime.getDetails());
+                writeString(out, crime.getPhotoPath());
+            }
+            out.flush();
+            // The checksum itself is not covered by the checksum
+            file.write(ByteBuffer.allocate(8).putLong(crc.getValue()).array());
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The saved records, or null when there is no usable file (missing, damaged or another format)
+    public Contents read() {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 || size > Integer.MAX_VALUE) {
+                System.err.println("Ignoring record snapshot " + path + ": unsupported size " + size);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 8);
+            crc.update(body);
+            if (buffer.getLong((int) size - 8) != crc.getValue()) {
+                System.err.println("Ignoring record snapshot " + path + ": checksum mismatch");
+                return null;
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                System.err.println("Ignoring record snapshot " + path + ": unknown format");
+                return null;
+            }
+            long savedAtMillis = buffer.getLong();
+            int count = buffer.getInt();
+            ObjectId maxId = new ObjectId(readBytes(buffer, 12));
+
+            String[] values = new String[buffer.getInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString(buffer);
+            }
+
+            List<Crime> crimes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Crime crime = new Crime();
+                crime.setObjectId(new ObjectId(readBytes(buffer, 12)));
+                crime.setCreatedAtMillis(buffer.getLong());
+                int city = buffer.getInt();
+                int crimeType = buffer.getInt();
+                crime.setCity(city != NULL_STRING ? values[city] : null);
+                crime.setCrimeType(crimeType != NULL_STRING ? values[crimeType] : null);
+                crime.setName(readString(buffer));
+                crime.setDetails(readString(buffer));
+                crime.setPhotoPath(readString(buffer));
+                crimes.add(crime);
+            }
+            return new Contents(savedAtMillis, count > 0 ? maxId : null, crimes);
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring record snapshot " + path + ": " + e);
+            return null;
+        }
+    }
+
+    private static void addToDictionary(Map<String, Integer> dictionary, List<String> values, String value) {
+        if (value != null && !dictionary.containsKey(value)) {
+            dictionary.put(value, values.size());
+            values.add(value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        return length == NULL_STRING ? null : new String(readBytes(buffer, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static final class Contents {
+        private final long savedAtMillis;
+        private final ObjectId maxId;
+        private final List<Crime> crimes;
+
+        Contents(long savedAtMillis, ObjectId maxId, List<Crime> crimes) {
+            this.savedAtMillis = savedAtMillis;
+            this.maxId = maxId;
+            this.crimes = crimes;
+        }
+
+        public long getSavedAtMillis() {
+            return savedAtMillis;
+        }
+
+        // Largest _id among the records; null when the file holds none
+        public ObjectId getMaxId() {
+            return maxId;
+        }
+
+        // Oldest first
+        public List<Crime> getCrimes() {
+            return crimes;
+        }
+    }
+}
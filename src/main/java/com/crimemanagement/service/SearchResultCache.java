@@ -0,0 +1,125 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Bounded LRU cache of search results with a time-to-live. Each entry carries a
+// predicate telling which records could appear in its results, so a mutation
+// evicts only the entries its old or new version could belong to.
+public class SearchResultCache {
+    private final int capacity;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+    // Bumped on every mutation, so a result computed across one is not stored
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    SearchResultCache(int capacity, long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Cached page, or null on a miss
+    synchronized SearchResultPage get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            expirations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.page;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    // Stores a page computed since generation(); dropped if a mutation happened meanwhile
+    synchronized void put(String key, SearchResultPage page, Predicate<Crime> mayContain, long computedAt) {
+        if (capacity <= 0 || computedAt != generation) {
+            return;
+        }
+        entries.put(key, new Entry(page, mayContain, System.nanoTime()));
+        if (entries.size() > capacity) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // Either record may be null (insert / delete)
+    synchronized void invalidate(Crime previous, Crime current) {
+        generation++;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Predicate<Crime> mayContain = it.next().getValue().mayContain;
+            if ((previous != null && mayContain.test(previous)) || (current != null && mayContain.test(current))) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // Entries dropped to stay within capacity
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    // Entries dropped because a changed record could belong to their results
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    private static final class Entry {
+        final SearchResultPage page;
+        final Predicate<Crime> mayContain;
+        final long storedAt;
+
+        Entry(SearchResultPage page, Predicate<Crime> mayContain, long storedAt) {
+            this.page = page;
+            this.mayContain = mayContain;
+            this.storedAt = storedAt;
+        }
+    }
+}
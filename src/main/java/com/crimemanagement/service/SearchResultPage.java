@@ -0,0 +1,50 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.SearchFacets;
+
+import java.util.Collections;
+import java.util.List;
+
+// One page of a search: the records at [offset, offset + limit) in the requested
+// order, plus the total number of matches and their facet counts (null for a page
+// that only wraps a plain result list)
+public class SearchResultPage {
+    private final List<Crime> crimes;
+    private final int total;
+    private final int offset;
+    private final int limit;
+    private final SearchFacets facets;
+
+    public SearchResultPage(List<Crime> crimes, int total, int offset, int limit, SearchFacets facets) {
+        this.crimes = Collections.unmodifiableList(crimes);
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+        this.facets = facets;
+    }
+
+    public List<Crime> getCrimes() {
+        return crimes;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public SearchFacets getFacets() {
+        return facets;
+    }
+
+    public boolean hasMore() {
+        return offset + crimes.size() < total;
+    }
+}
@@ -1,104 +1,696 @@
 package com.crimemanagement.service;
 
 import com.crimemanagement.config.DatabaseConfig;
+import com.crimemanagement.config.IndexManager;
 import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.SearchFacets;
+import com.crimemanagement.search.CompletionTrie;
+import com.crimemanagement.search.FullTextIndex;
+import com.crimemanagement.search.FuzzyIndex;
+import com.crimemanagement.search.NGramIndex;
+import com.crimemanagement.search.PhoneticIndex;
+import com.crimemanagement.search.RoaringBitmap;
+import com.crimemanagement.search.Soundex;
+import com.crimemanagement.search.Tokenizer;
+import com.crimemanagement.util.CrimeDocumentMapper;
+import com.crimemanagement.util.RegexGuard;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import static com.mongodb.client.model.Filters.*;
 
-public class SearchService {
+// Indexes the records held by the shared CrimeService store (no copies of its
+// own); obtain the per-JVM instance from SharedServiceHolder.getSearchService().
+public class SearchService implements CrimeMutationListener {
+    public static final int DEFAULT_DETAILS_RESULTS = Integer.getInteger("crime.search.detailsResults", 100);
+    // Advanced-search candidates up to this count are sent to MongoDB as an _id list
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final int RESULT_CACHE_SIZE = Integer.getInteger("crime.search.cacheSize", 256);
+    private static final long RESULT_CACHE_TTL_MS = Long.getLong("crime.search.cacheTtlMs", 60_000L);
+    // Server-side time limit for database queries carrying a user-supplied regex
+    private static final long REGEX_MAX_TIME_MS = Long.getLong("crime.search.regexMaxTimeMs", 2000L);
+    
     private MongoCollection<Document> crimesCollection;
-    private HashMap<String, List<Crime>> nameIndex;
-    private HashMap<String, List<Crime>> cityIndex;
-    private HashMap<String, List<Crime>> crimeTypeIndex;
+    private final CrimeService crimeService;
+    private HashMap<String, PostingList> nameIndex;
+    private HashMap<String, PostingList> cityIndex;
+    private HashMap<String, PostingList> crimeTypeIndex;
+    // Time buckets over createdAt, in the local time zone: records per calendar day (epoch
+    // day) and per hour (epoch day * 24 + hour of day); sorted, so a range is a sub-map
+    private final TreeMap<Long, PostingList> dayIndex = new TreeMap<>();
+    private final TreeMap<Long, PostingList> hourIndex = new TreeMap<>();
+    // Every posting list is a bitmap over these ordinals
+    private final RecordOrdinals ordinals = new RecordOrdinals();
+    private RoaringBitmap allRecords = new RoaringBitmap();
+    // Records without a createdAt, which no time bucket holds
+    private RoaringBitmap undatedRecords = new RoaringBitmap();
+    // Substring lookup over the distinct name / city keys
+    private final NGramIndex nameGrams = new NGramIndex();
+    private final NGramIndex cityGrams = new NGramIndex();
+    // Misspelled and sound-alike name lookup over the distinct names
+    private final FuzzyIndex nameFuzzy = new FuzzyIndex();
+    private final PhoneticIndex namePhonetic = new PhoneticIndex();
+    // Autocomplete, weighted by the number of records per key; readable without the service lock
+    private final CompletionTrie nameCompletions = new CompletionTrie();
+    private final CompletionTrie cityCompletions = new CompletionTrie();
+    private final CompletionTrie crimeTypeCompletions = new CompletionTrie();
+    // Ranked full-text search over details
+    private final FullTextIndex<Crime> detailsIndex = new FullTextIndex<>(Crime::getDetails);
+    private final SearchResultCache resultCache = new SearchResultCache(RESULT_CACHE_SIZE, RESULT_CACHE_TTL_MS);
+    // Parallel scans for predicates no index covers
+    private final CrimeScanner scanner = new CrimeScanner();
     
-    public SearchService() {
+    SearchService(CrimeService crimeService) {
         this.crimesCollection = DatabaseConfig.getCrimesCollection();
+        this.crimeService = crimeService;
         this.nameIndex = new HashMap<>();
         this.cityIndex = new HashMap<>();
         this.crimeTypeIndex = new HashMap<>();
+        
+        // Subscribe before indexing so nothing saved in between is missed; records still
+        // arriving from the startup load are indexed as their batches are published
+        crimeService.addMutationListener(this);
         buildSearchIndexes();
     }
     
+    @Override
+    public synchronized void onCrimeSaved(Crime previous, Crime current) {
+        int ordinal;
+        if (previous != null && ordinals.ordinalOf(previous) >= 0) {
+            // The new version keeps the old one's ordinal
+            removeFromIndexes(previous, ordinals.ordinalOf(previous));
+            ordinal = ordinals.replace(previous, current);
+        } else {
+            ordinal = ordinals.assign(current);
+        }
+        // Adding is idempotent, so a record already picked up by the initial build is not duplicated
+        addToIndexes(current, ordinal);
+        resultCache.invalidate(previous, current);
+    }
+    
+    @Override
+    public synchronized void onCrimeRemoved(Crime removed) {
+        int ordinal = ordinals.ordinalOf(removed);
+        if (ordinal >= 0) {
+            removeFromIndexes(removed, ordinal);
+            ordinals.release(removed);
+        }
+        resultCache.invalidate(removed, null);
+    }
+    
+    private void addToIndexes(Crime crime, int ordinal) {
+        String name = normalize(crime.getName());
+        if (addToIndex(nameIndex, name, ordinal)) {
+            nameGrams.add(name);
+            nameFuzzy.add(name);
+            namePhonetic.add(name);
+        }
+        String city = normalize(crime.getCity());
+        if (addToIndex(cityIndex, city, ordinal)) {
+            cityGrams.add(city);
+        }
+        String crimeType = normalize(crime.getCrimeType());
+        addToIndex(crimeTypeIndex, crimeType, ordinal);
+        addToIndex(dayIndex, dayOf(crime), ordinal);
+        addToIndex(hourIndex, hourOf(crime), ordinal);
+        allRecords.add(ordinal);
+        if (crime.getCreatedAt() == null) {
+            undatedRecords.add(ordinal);
+        }
+        detailsIndex.add(crime);
+        
+        updateCompletion(nameCompletions, nameIndex, name, crime.getName());
+        updateCompletion(cityCompletions, cityIndex, city, crime.getCity());
+        updateCompletion(crimeTypeCompletions, crimeTypeIndex, crimeType, crime.getCrimeType());
+    }
+    
+    // Uses the record's own keys, so an edit drops the entries filed under its old values
+    private void removeFromIndexes(Crime crime, int ordinal) {
+        String name = normalize(crime.getName());
+        if (removeFromIndex(nameIndex, name, ordinal)) {
+            nameGrams.remove(name);
+            nameFuzzy.remove(name);
+            namePhonetic.remove(name);
+        }
+        String city = normalize(crime.getCity());
+        if (removeFromIndex(cityIndex, city, ordinal)) {
+            cityGrams.remove(city);
+        }
+        String crimeType = normalize(crime.getCrimeType());
+        removeFromIndex(crimeTypeIndex, crimeType, ordinal);
+        removeFromIndex(dayIndex, dayOf(crime), ordinal);
+        removeFromIndex(hourIndex, hourOf(crime), ordinal);
+        allRecords.remove(ordinal);
+        undatedRecords.remove(ordinal);
+        detailsIndex.remove(crime);
+        
+        updateCompletion(nameCompletions, nameIndex, name, crime.getName());
+        updateCompletion(cityCompletions, cityIndex, city, crime.getCity());
+        updateCompletion(crimeTypeCompletions, crimeTypeIndex, crimeType, crime.getCrimeType());
+    }
+    
+    private static void updateCompletion(CompletionTrie completions, HashMap<String, PostingList> index, String key, String display) {
+        if (key != null) {
+            PostingList postings = index.get(key);
+            completions.set(key, display.trim(), postings != null ? postings.size() : 0);
+        }
+    }
+    
+    private static String normalize(String key) {
+        return key != null ? key.toLowerCase() : null;
+    }
+    
+    private static Long dayOf(Crime crime) {
+        return crime.getCreatedAt() != null ? crime.getCreatedAt().toLocalDate().toEpochDay() : null;
+    }
+    
+    private static Long hourOf(Crime crime) {
+        return crime.getCreatedAt() != null ? hourKey(crime.getCreatedAt()) : null;
+    }
+    
+    private static long hourKey(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * 24 + time.getHour();
+    }
+    
+    // Returns true when the key is new to the index, so key-level structures can pick it up
+    private <K> boolean addToIndex(Map<K, PostingList> index, K key, int ordinal) {
+        if (key == null) {
+            return false;
+        }
+        PostingList postings = index.get(key);
+        boolean newKey = postings == null;
+        if (newKey) {
+            postings = new PostingList(ordinals);
+            index.put(key, postings);
+        }
+        postings.add(ordinal);
+        return newKey;
+    }
+    
+    // Returns true when the key's last record was removed
+    private static <K> boolean removeFromIndex(Map<K, PostingList> index, K key, int ordinal) {
+        if (key == null) {
+            return false;
+        }
+        PostingList postings = index.get(key);
+        if (postings != null && postings.remove(ordinal) && postings.isEmpty()) {
+            index.remove(key);
+            return true;
+        }
+        return false;
+    }
+    
+    private List<Crime> recordsForKeys(HashMap<String, PostingList> index, List<String> keys) {
+        List<Crime> results = new ArrayList<>();
+        for (String key : keys) {
+            results.addAll(index.get(key).view());
+        }
+        return results;
+    }
+    
+    // Records whose key contains the term: trigram lookup over the distinct keys, then
+    // their posting lists. Falls back to the database only while the store is still loading.
+    private List<Crime> substringMatches(HashMap<String, PostingList> index, NGramIndex grams, String field, String term) {
+        if (!crimeService.isLoadComplete()) {
+            return searchInDatabase(field, term, MatchMode.CONTAINS);
+        }
+        List<Crime> results;
+        synchronized (this) {
+            results = recordsForKeys(index, grams.keysContaining(term.toLowerCase()));
+        }
+        System.out.println("Found " + results.size() + " partial match(es) in memory.");
+        return results;
+    }
+    
+    // Returns the posting list's shared immutable view; nothing is copied per lookup
+    private synchronized List<Crime> exactMatches(HashMap<String, PostingList> index, String key) {
+        PostingList matches = index.get(key.toLowerCase());
+        return matches != null ? matches.view() : Collections.emptyList();
+    }
+    
+    public List<Crime> search(String searchType, String term, int limit) {
+        return search(searchType, term, null, limit);
+    }
+    
+    // Cached entry point for the web search types: name, fuzzy, phonetic, city, crimetype
+    // and details (limit applies to details only). The match mode applies to name, city and
+    // crimetype; null keeps their default (exact key, else contains). Results are shared and
+    // must not be modified. Throws IllegalArgumentException for a rejected regex.
+    public List<Crime> search(String searchType, String term, MatchMode mode, int limit) {
+        String type = searchType.toLowerCase();
+        String key = "list\u0000" + type + '\u0000' + term.toLowerCase() + '\u0000' + mode
+            + ("details".equals(type) && mode == null ? "\u0000" + limit : "");
+        SearchResultPage cached = resultCache.get(key);
+        if (cached != null) {
+            return cached.getCrimes();
+        }
+        
+        long generation = resultCache.generation();
+        // Database results from the startup load, and regex results, are not cached
+        boolean cacheable = crimeService.isLoadComplete() && mode != MatchMode.REGEX;
+        List<Crime> results;
+        switch (type) {
+            case "city":
+                results = searchByCity(term, mode);
+                break;
+            case "crimetype":
+                results = searchByCrimeType(term, mode);
+                break;
+            case "details":
+                results = mode != null ? searchByDetails(term, mode) : searchByDetails(term, limit);
+                break;
+            case "fuzzy":
+                results = searchByNameFuzzy(term, 2);
+                break;
+            case "phonetic":
+                results = searchByNamePhonetic(term);
+                break;
+            case "name":
+            default:
+                results = searchByName(term, mode);
+                break;
+        }
+        
+        SearchResultPage page = new SearchResultPage(results, results.size(), 0, results.size(), null);
+        if (cacheable) {
+            resultCache.put(key, page, mayContain(type, term, mode), generation);
+        }
+        return page.getCrimes();
+    }
+    
+    // One page of a web search (types as for search(), plus "all" for every record), restricted
+    // to records created in [from, to) when either bound is given. Bitmap-backed searches never
+    // materialize more than offset + limit records: NEWEST / OLDEST walk the day buckets from
+    // one end and stop once enough are collected, and field orders keep a bounded heap. Ranked
+    // details searches filter by date before taking the top offset + limit. The page carries
+    // the total and the facets of all matches. sort null means RELEVANCE for details and
+    // NEWEST otherwise.
+    public SearchResultPage searchPage(String searchType, String term, MatchMode mode, LocalDateTime from, LocalDateTime to,
+                                       SortKey sort, int offset, int limit) {
+        String type = searchType.toLowerCase();
+        boolean details = "details".equals(type);
+        boolean ranked = details && mode == null;
+        SortKey order = sort == null || (sort == SortKey.RELEVANCE && !ranked) ? (ranked ? SortKey.RELEVANCE : SortKey.NEWEST) : sort;
+        int start = Math.max(0, offset);
+        int size = Math.max(1, limit);
+        String key = "page\u0000" + type + '\u0000' + term.toLowerCase() + '\u0000' + mode + '\u0000' + from + '\u0000' + to
+            + '\u0000' + order + '\u0000' + start + '\u0000' + size;
+        SearchResultPage cached = resultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long generation = resultCache.generation();
+        boolean cacheable = crimeService.isLoadComplete() && mode != MatchMode.REGEX;
+        SearchResultPage page = null;
+        if (crimeService.isLoadComplete() && (!details || ranked)) {
+            synchronized (this) {
+                RoaringBitmap range = from != null || to != null ? timeRange(from, to) : null;
+                RoaringBitmap matches;
+                List<Crime> ranking = null;
+                if (ranked) {
+                    // Every ranked match counts toward the total and facets, not just the top offset + limit
+                    FullTextIndex.Hits<Crime> hits = detailsIndex.search(term, order == SortKey.RELEVANCE ? start + size : 0,
+                        range == null ? null : crime -> range.contains(ordinals.ordinalOf(crime)));
+                    matches = new RoaringBitmap();
+                    for (Crime crime : hits.getMatches()) {
+                        matches.add(ordinals.ordinalOf(crime));
+                    }
+                    ranking = hits.getTop();
+                } else {
+                    matches = matchingBitmap(type, term, mode);
+                    if (range != null) {
+                        matches = RoaringBitmap.and(matches, range);
+                    }
+                }
+                int total = matches.cardinality();
+                int needed = (int) Math.min((long) start + size, total);
+                List<Crime> first;
+                if (order == SortKey.RELEVANCE) {
+                    first = ranking;
+                } else if (order == SortKey.NEWEST || order == SortKey.OLDEST) {
+                    first = firstByTime(matches, order == SortKey.NEWEST, needed, total);
+                } else {
+                    first = firstByComparator(matches, order.comparator(), needed);
+                }
+                page = new SearchResultPage(slice(first, start, size), total, start, size, facets(matches, Collections.emptyList()));
+            }
+        } else {
+            // Details scans in a match mode, or database results while the store is still loading
+            List<Crime> results = search(type, term, mode, start + size);
+            if (from != null || to != null) {
+                results = restrictToDateRange(results, from, to);
+            }
+            if (order != SortKey.RELEVANCE) {
+                results = new ArrayList<>(results);
+                results.sort(order.comparator());
+            }
+            page = new SearchResultPage(slice(results, start, size), results.size(), start, size, facetsFor(results));
+        }
+        
+        if (cacheable) {
+            resultCache.put(key, page, "all".equals(type) ? crime -> true : mayContain(type, term, mode), generation);
+        }
+        return page;
+    }
+    
+    // Which records could appear in the results of a search, for cache invalidation
+    private static Predicate<Crime> mayContain(String type, String term, MatchMode mode) {
+        String needle = term.toLowerCase();
+        switch (type) {
+            case "city":
+                return crime -> matches(crime.getCity(), needle, mode);
+            case "crimetype":
+                return crime -> matches(crime.getCrimeType(), needle, mode);
+            case "details":
+                if (mode != null) {
+                    return crime -> matches(crime.getDetails(), needle, mode);
+                }
+                Set<String> tokens = new HashSet<>(Tokenizer.tokenize(term));
+                return crime -> crime.getDetails() != null
+                    && Tokenizer.tokenize(crime.getDetails()).stream().anyMatch(tokens::contains);
+            case "fuzzy":
+                String query = needle.trim();
+                return crime -> crime.getName() != null && FuzzyIndex.withinDistance(normalize(crime.getName()), query, 2);
+            case "phonetic":
+                String code = Soundex.encode(term);
+                return crime -> !code.isEmpty() && crime.getName() != null && code.equals(Soundex.encode(normalize(crime.getName())));
+            case "name":
+            default:
+                return crime -> matches(crime.getName(), needle, mode);
+        }
+    }
+    
+    // Ordinals matching a bitmap-backed search; must be called under the service lock, and the
+    // result must not be modified (it may be a live posting bitmap)
+    private RoaringBitmap matchingBitmap(String type, String term, MatchMode mode) {
+        Pattern pattern = mode == MatchMode.REGEX ? RegexGuard.compile(term) : null;
+        switch (type) {
+            case "all":
+                return allRecords;
+            case "city":
+                return unionOf(cityIndex, keysFor(cityIndex, cityGrams, term, mode, pattern));
+            case "crimetype":
+                return unionOf(crimeTypeIndex, keysFor(crimeTypeIndex, null, term, mode, pattern));
+            case "fuzzy":
+                return unionOf(nameIndex, nameFuzzy.search(term.trim().toLowerCase(), 2));
+            case "phonetic":
+                return unionOf(nameIndex, namePhonetic.keysSoundingLike(term));
+            case "name":
+            default:
+                return unionOf(nameIndex, keysFor(nameIndex, nameGrams, term, mode, pattern));
+        }
+    }
+    
+    private static RoaringBitmap unionOf(HashMap<String, PostingList> index, List<String> keys) {
+        if (keys.size() == 1) {
+            return index.get(keys.get(0)).bitmap();
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (String key : keys) {
+            union = RoaringBitmap.or(union, index.get(key).bitmap());
+        }
+        return union;
+    }
+    
+    // The first `needed` matches in time order, visiting day buckets from the requested end
+    // and stopping as soon as enough records (or every match) have been seen
+    private List<Crime> firstByTime(RoaringBitmap matches, boolean newestFirst, int needed, int total) {
+        Comparator<Crime> order = newestFirst ? CrimeSnapshot.ORDER.reversed() : CrimeSnapshot.ORDER;
+        List<Crime> collected = new ArrayList<>(needed);
+        // Undated records sort before every dated one
+        List<Crime> undated = ordinals.resolve(RoaringBitmap.and(matches, undatedRecords));
+        undated.sort(order);
+        if (!newestFirst) {
+            collected.addAll(undated);
+        }
+        int seen = undated.size();
+        NavigableMap<Long, PostingList> days = newestFirst ? dayIndex.descendingMap() : dayIndex;
+        for (PostingList day : days.values()) {
+            if (collected.size() >= needed || seen == total) {
+                break;
+            }
+            RoaringBitmap sameDay = RoaringBitmap.and(matches, day.bitmap());
+            if (!sameDay.isEmpty()) {
+                List<Crime> dayCrimes = ordinals.resolve(sameDay);
+                dayCrimes.sort(order);
+                collected.addAll(dayCrimes);
+                seen += dayCrimes.size();
+            }
+        }
+        if (newestFirst && collected.size() < needed) {
+            collected.addAll(undated);
+        }
+        return collected.size() > needed ? collected.subList(0, needed) : collected;
+    }
+    
+    // The first `needed` matches in comparator order, streamed through a bounded max-heap
+    private List<Crime> firstByComparator(RoaringBitmap matches, Comparator<Crime> order, int needed) {
+        if (needed <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Crime> heap = new PriorityQueue<>(needed + 1, order.reversed());
+        matches.forEach(ordinal -> {
+            Crime crime = ordinals.get(ordinal);
+            if (heap.size() < needed) {
+                heap.add(crime);
+            } else if (order.compare(crime, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(crime);
+            }
+        });
+        List<Crime> first = new ArrayList<>(heap);
+        first.sort(order);
+        return first;
+    }
+    
+    private static List<Crime> slice(List<Crime> crimes, int offset, int limit) {
+        if (offset >= crimes.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(crimes.subList(offset, Math.min(crimes.size(), offset + limit)));
+    }
+    
+    public SearchResultCache getResultCache() {
+        return resultCache;
+    }
+    
+    // Whether a search in the given mode could return a record with this value; the
+    // default mode's exact-key matches are a subset of its contains matches
+    private static boolean matches(String value, String needle, MatchMode mode) {
+        if (value == null) {
+            return false;
+        }
+        return (mode != null ? mode : MatchMode.CONTAINS).matchesLiteral(normalize(value), needle);
+    }
+    
     public List<Crime> searchByName(String name) {
         System.out.println("Searching for criminal name: " + name);
         
         // First try exact match from HashMap
-        List<Crime> exactMatches = nameIndex.get(name.toLowerCase());
-        if (exactMatches != null && !exactMatches.isEmpty()) {
+        List<Crime> exactMatches = exactMatches(nameIndex, name);
+        if (!exactMatches.isEmpty()) {
             System.out.println("Found " + exactMatches.size() + " exact match(es) in memory cache.");
-            return new ArrayList<>(exactMatches);
+            return exactMatches;
         }
         
-        // If no exact match, search database with partial matching
-        return searchInDatabase("name", name);
+        // If no exact match, fall back to partial matching
+        return substringMatches(nameIndex, nameGrams, "name", name);
+    }
+    
+    // Most frequent names, cities or crime types starting with the prefix (case-insensitive)
+    public List<CompletionTrie.Completion> autocomplete(String field, String prefix, int limit) {
+        CompletionTrie completions;
+        switch (field == null ? "" : field.toLowerCase()) {
+            case "city":
+                completions = cityCompletions;
+                break;
+            case "crimetype":
+                completions = crimeTypeCompletions;
+                break;
+            case "name":
+                completions = nameCompletions;
+                break;
+            default:
+                return Collections.emptyList();
+        }
+        String normalized = prefix == null ? "" : prefix.toLowerCase();
+        return normalized.isEmpty() ? Collections.emptyList() : completions.complete(normalized, limit);
+    }
+    
+    // Names within maxDistance (1 or 2) edits of the query, closest names first
+    public List<Crime> searchByNameFuzzy(String name, int maxDistance) {
+        System.out.println("Fuzzy search for criminal name: " + name);
+        List<Crime> results;
+        synchronized (this) {
+            results = recordsForKeys(nameIndex, nameFuzzy.search(name.trim().toLowerCase(), Math.max(1, maxDistance)));
+        }
+        System.out.println("Found " + results.size() + " fuzzy match(es) in memory.");
+        return results;
+    }
+    
+    // Names with the same Soundex code, word by word
+    public List<Crime> searchByNamePhonetic(String name) {
+        System.out.println("Phonetic search for criminal name: " + name);
+        List<Crime> results;
+        synchronized (this) {
+            results = recordsForKeys(nameIndex, namePhonetic.keysSoundingLike(name));
+        }
+        System.out.println("Found " + results.size() + " phonetic match(es) in memory.");
+        return results;
     }
     
     public List<Crime> searchByCity(String city) {
         System.out.println("Searching for city: " + city);
         
         // First try exact match from HashMap
-        List<Crime> exactMatches = cityIndex.get(city.toLowerCase());
-        if (exactMatches != null && !exactMatches.isEmpty()) {
+        List<Crime> exactMatches = exactMatches(cityIndex, city);
+        if (!exactMatches.isEmpty()) {
             System.out.println("Found " + exactMatches.size() + " exact match(es) in memory cache.");
-            return new ArrayList<>(exactMatches);
+            return exactMatches;
         }
         
-        // If no exact match, search database with partial matching
-        return searchInDatabase("city", city);
+        // If no exact match, fall back to partial matching
+        return substringMatches(cityIndex, cityGrams, "city", city);
     }
     
     public List<Crime> searchByCrimeType(String crimeType) {
         System.out.println("Searching for crime type: " + crimeType);
         
         // First try exact match from HashMap
-        List<Crime> exactMatches = crimeTypeIndex.get(crimeType.toLowerCase());
-        if (exactMatches != null && !exactMatches.isEmpty()) {
+        List<Crime> exactMatches = exactMatches(crimeTypeIndex, crimeType);
+        if (!exactMatches.isEmpty()) {
             System.out.println("Found " + exactMatches.size() + " exact match(es) in memory cache.");
-            return new ArrayList<>(exactMatches);
+            return exactMatches;
         }
         
         // If no exact match, search database with partial matching
-        return searchInDatabase("crimeType", crimeType);
+        return searchInDatabase("crimeType", crimeType, MatchMode.CONTAINS);
     }
     
-    public List<Crime> advancedSearch(String name, String city, String crimeType) {
-        System.out.println("Performing advanced search...");
-        
-        List<Bson> filters = new ArrayList<>();
-        
-        if (name != null && !name.trim().isEmpty()) {
-            filters.add(regex("name", Pattern.compile(name.trim(), Pattern.CASE_INSENSITIVE)));
+    // Searches in an explicit match mode; null falls back to the default behaviour.
+    // Throws IllegalArgumentException for a regex RegexGuard rejects or that times out.
+    public List<Crime> searchByName(String name, MatchMode mode) {
+        if (mode == null) {
+            return searchByName(name);
         }
-        
-        if (city != null && !city.trim().isEmpty()) {
-            filters.add(regex("city", Pattern.compile(city.trim(), Pattern.CASE_INSENSITIVE)));
+        System.out.println("Searching for criminal name (" + mode + "): " + name);
+        return keyMatches(nameIndex, nameGrams, "name", name, mode);
+    }
+    
+    public List<Crime> searchByCity(String city, MatchMode mode) {
+        if (mode == null) {
+            return searchByCity(city);
+        }
+        System.out.println("Searching for city (" + mode + "): " + city);
+        return keyMatches(cityIndex, cityGrams, "city", city, mode);
+    }
+    
+    public List<Crime> searchByCrimeType(String crimeType, MatchMode mode) {
+        if (mode == null) {
+            return searchByCrimeType(crimeType);
+        }
+        System.out.println("Searching for crime type (" + mode + "): " + crimeType);
+        return keyMatches(crimeTypeIndex, null, "crimeType", crimeType, mode);
+    }
+    
+    // Records whose key matches the term in the given mode, from the in-memory index once
+    // loaded; grams may be null, in which case the distinct keys are scanned
+    private List<Crime> keyMatches(HashMap<String, PostingList> index, NGramIndex grams, String field, String term, MatchMode mode) {
+        Pattern pattern = mode == MatchMode.REGEX ? RegexGuard.compile(term) : null;
+        if (!crimeService.isLoadComplete()) {
+            return searchInDatabase(field, term, mode);
+        }
+        if (mode == MatchMode.EXACT) {
+            List<Crime> results = exactMatches(index, term);
+            System.out.println("Found " + results.size() + " exact match(es) in memory.");
+            return results;
         }
         
-        if (crimeType != null && !crimeType.trim().isEmpty()) {
-            filters.add(regex("crimeType", Pattern.compile(crimeType.trim(), Pattern.CASE_INSENSITIVE)));
+        List<Crime> results;
+        synchronized (this) {
+            results = recordsForKeys(index, keysFor(index, grams, term, mode, pattern));
+        }
+        System.out.println("Found " + results.size() + " match(es) in memory.");
+        return results;
+    }
+    
+    // Distinct keys matching the term; mode null means the exact key if present, else
+    // every key containing the term. Must be called under the service lock.
+    private List<String> keysFor(HashMap<String, PostingList> index, NGramIndex grams, String term, MatchMode mode, Pattern pattern) {
+        String literal = term.toLowerCase();
+        if (mode == null || mode == MatchMode.EXACT) {
+            if (index.containsKey(literal)) {
+                return Collections.singletonList(literal);
+            }
+            if (mode == MatchMode.EXACT) {
+                return Collections.emptyList();
+            }
         }
+        List<String> keys = new ArrayList<>();
+        if (pattern != null) {
+            long deadline = RegexGuard.deadline();
+            for (String key : index.keySet()) {
+                if (RegexGuard.find(pattern, key, deadline)) {
+                    keys.add(key);
+                }
+            }
+        } else {
+            MatchMode literalMode = mode != null ? mode : MatchMode.CONTAINS;
+            Collection<String> candidates = grams != null ? grams.keysContaining(literal) : index.keySet();
+            for (String key : candidates) {
+                if (literalMode.matchesLiteral(key, literal)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+    
+    // Criteria are ANDed; each is a case-insensitive pattern, as in a MongoDB $regex.
+    // Literal, prefix (^term) and exact (^term$) criteria are answered from the in-memory
+    // indexes, smallest estimate first; the remaining patterns are scanned in parallel over
+    // the candidates (or every record), and go to the database only while still loading.
+    public List<Crime> advancedSearch(String name, String city, String crimeType) {
+        return advancedSearch(name, city, crimeType, MatchMode.REGEX);
+    }
+    
+    // As above, with every criterion compared in the given mode; literal modes never
+    // interpret the terms as patterns
+    public List<Crime> advancedSearch(String name, String city, String crimeType, MatchMode mode) {
+        System.out.println("Performing advanced search...");
         
-        if (filters.isEmpty()) {
+        QueryPlan plan = new QueryPlan();
+        List<Criterion> criteria;
+        List<Crime> candidates;
+        // Plan and intersect under one lock so ordinals cannot be reassigned in between
+        try {
+            synchronized (this) {
+                criteria = planAdvancedSearch(name, city, crimeType, mode, plan);
+                candidates = intersectIndexed(criteria, plan);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Rejected search pattern: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        if (criteria.isEmpty()) {
             System.out.println("No search criteria provided.");
             return new ArrayList<>();
         }
         
         try {
-            List<Crime> results = new ArrayList<>();
-            Bson combinedFilter = and(filters);
-            
-            for (Document doc : crimesCollection.find(combinedFilter)) {
-                results.add(documentToCrime(doc));
-            }
-            
+            List<Crime> results = applyResidual(criteria, candidates, plan);
+            System.out.println(plan);
             System.out.println("Advanced search found " + results.size() + " result(s).");
             return results;
             
@@ -108,6 +700,429 @@ public class SearchService {
         }
     }
     
+    // Exact-key filter combined on the bitmap indexes: a record must match every
+    // include and no exclude. Fields: name, city, crimeType, day (yyyy-MM-dd);
+    // values are compared case-insensitively.
+    public synchronized List<Crime> filterByKeys(Map<String, String> include, Map<String, String> exclude) {
+        RoaringBitmap matches = allRecords;
+        for (Map.Entry<String, String> criterion : include.entrySet()) {
+            matches = RoaringBitmap.and(matches, bitmapFor(criterion.getKey(), criterion.getValue()));
+        }
+        for (Map.Entry<String, String> criterion : exclude.entrySet()) {
+            matches = RoaringBitmap.andNot(matches, bitmapFor(criterion.getKey(), criterion.getValue()));
+        }
+        return ordinals.resolve(matches);
+    }
+    
+    private RoaringBitmap bitmapFor(String field, String value) {
+        PostingList postings;
+        switch (field.toLowerCase()) {
+            case "name":
+                postings = nameIndex.get(normalize(value));
+                break;
+            case "city":
+                postings = cityIndex.get(normalize(value));
+                break;
+            case "crimetype":
+                postings = crimeTypeIndex.get(normalize(value));
+                break;
+            case "day":
+                postings = dayIndex.get(LocalDate.parse(value.trim()).toEpochDay());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown search field: " + field);
+        }
+        return postings != null ? postings.bitmap() : new RoaringBitmap();
+    }
+    
+    // Records created in [from, to), local time, newest first; a null bound is open
+    public List<Crime> searchByDateRange(LocalDateTime from, LocalDateTime to) {
+        System.out.println("Searching for records created between " + (from != null ? from : "the beginning")
+            + " and " + (to != null ? to : "now"));
+        List<Crime> results;
+        synchronized (this) {
+            results = ordinals.resolve(timeRange(from, to));
+        }
+        results.sort(CrimeSnapshot.ORDER.reversed());
+        System.out.println("Found " + results.size() + " record(s) in the date range.");
+        return results;
+    }
+    
+    // The given records (any search result, order kept) that were created in [from, to)
+    public synchronized List<Crime> restrictToDateRange(Collection<Crime> crimes, LocalDateTime from, LocalDateTime to) {
+        RoaringBitmap range = timeRange(from, to);
+        List<Crime> results = new ArrayList<>();
+        for (Crime crime : crimes) {
+            int ordinal = ordinals.ordinalOf(crime);
+            if (ordinal >= 0 ? range.contains(ordinal) : createdWithin(crime, from, to)) {
+                results.add(crime);
+            }
+        }
+        return results;
+    }
+    
+    // Whole days come from the day buckets and whole hours at either end from the hour
+    // buckets; only the records of an hour the range cuts through are checked one by one
+    private RoaringBitmap timeRange(LocalDateTime from, LocalDateTime to) {
+        RoaringBitmap result = new RoaringBitmap();
+        long firstHour = from == null ? Long.MIN_VALUE : hourKey(from) + (isHourStart(from) ? 0 : 1);
+        long endHour = to == null ? Long.MAX_VALUE : hourKey(to);
+        if (firstHour < endHour) {
+            long firstDay = from == null ? Long.MIN_VALUE : Math.floorDiv(firstHour + 23, 24);
+            long endDay = to == null ? Long.MAX_VALUE : Math.floorDiv(endHour, 24);
+            if (firstDay < endDay) {
+                result = union(result, dayIndex.subMap(firstDay, endDay).values());
+                if (from != null) {
+                    result = union(result, hourIndex.subMap(firstHour, firstDay * 24).values());
+                }
+                if (to != null) {
+                    result = union(result, hourIndex.subMap(endDay * 24, endHour).values());
+                }
+            } else {
+                result = union(result, hourIndex.subMap(firstHour, endHour).values());
+            }
+        }
+        
+        boolean partialFirstHour = from != null && !isHourStart(from);
+        if (partialFirstHour) {
+            addCreatedWithin(result, hourKey(from), from, to);
+        }
+        if (to != null && !isHourStart(to) && !(partialFirstHour && hourKey(to) == hourKey(from))) {
+            addCreatedWithin(result, hourKey(to), from, to);
+        }
+        return result;
+    }
+    
+    private static RoaringBitmap union(RoaringBitmap result, Collection<PostingList> buckets) {
+        for (PostingList bucket : buckets) {
+            result = RoaringBitmap.or(result, bucket.bitmap());
+        }
+        return result;
+    }
+    
+    private void addCreatedWithin(RoaringBitmap result, long hour, LocalDateTime from, LocalDateTime to) {
+        PostingList bucket = hourIndex.get(hour);
+        if (bucket != null) {
+            bucket.bitmap().forEach(ordinal -> {
+                if (createdWithin(ordinals.get(ordinal), from, to)) {
+                    result.add(ordinal);
+                }
+            });
+        }
+    }
+    
+    private static boolean createdWithin(Crime crime, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime createdAt = crime.getCreatedAt();
+        return createdAt != null && (from == null || !createdAt.isBefore(from)) && (to == null || createdAt.isBefore(to));
+    }
+    
+    private static boolean isHourStart(LocalDateTime time) {
+        return time.getMinute() == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+    
+    // Approximate heap held by the bitmap indexes
+    public synchronized long getIndexBitmapBytes() {
+        long total = allRecords.sizeInBytes();
+        for (Map<?, PostingList> index : Arrays.asList(nameIndex, cityIndex, crimeTypeIndex, dayIndex, hourIndex)) {
+            for (PostingList postings : index.values()) {
+                total += postings.bitmap().sizeInBytes();
+            }
+        }
+        return total;
+    }
+    
+    // Counts per city, crime type and day over every indexed record
+    public synchronized SearchFacets getFacets() {
+        return facets(allRecords, Collections.emptyList());
+    }
+    
+    // Counts for the records of any search result, taken from the bitmap indexes.
+    // Records the indexes do not hold (database results during the startup load)
+    // are counted one by one.
+    public synchronized SearchFacets facetsFor(Collection<Crime> crimes) {
+        RoaringBitmap matches = new RoaringBitmap();
+        List<Crime> unindexed = new ArrayList<>();
+        for (Crime crime : crimes) {
+            int ordinal = ordinals.ordinalOf(crime);
+            if (ordinal >= 0) {
+                matches.add(ordinal);
+            } else {
+                unindexed.add(crime);
+            }
+        }
+        return facets(matches, unindexed);
+    }
+    
+    private SearchFacets facets(RoaringBitmap matches, List<Crime> unindexed) {
+        int matchCount = matches.cardinality();
+        Map<String, Integer> byCity = byCount(countBy(cityIndex, matches, matchCount, c -> normalize(c.getCity()), unindexed), cityIndex, Crime::getCity);
+        Map<String, Integer> byCrimeType = byCount(countBy(crimeTypeIndex, matches, matchCount, c -> normalize(c.getCrimeType()), unindexed), crimeTypeIndex, Crime::getCrimeType);
+        Map<Long, Integer> days = countBy(dayIndex, matches, matchCount, SearchService::dayOf, unindexed);
+        Map<String, Integer> byDay = new LinkedHashMap<>();
+        days.keySet().stream()
+            .sorted(Comparator.reverseOrder())
+            .forEach(day -> byDay.put(LocalDate.ofEpochDay(day).toString(), days.get(day)));
+        return new SearchFacets(matchCount + unindexed.size(), byCity, byCrimeType, byDay);
+    }
+    
+    private <K> Map<K, Integer> countBy(Map<K, PostingList> index, RoaringBitmap matches, int matchCount,
+                                        Function<Crime, K> keyOf, List<Crime> unindexed) {
+        Map<K, Integer> counts = new HashMap<>();
+        if (matchCount < index.size()) {
+            // Fewer matches than keys: look up each match's key instead of intersecting every list
+            matches.forEach(ordinal -> counts.merge(keyOf.apply(ordinals.get(ordinal)), 1, Integer::sum));
+        } else {
+            for (Map.Entry<K, PostingList> entry : index.entrySet()) {
+                int count = RoaringBitmap.andCardinality(matches, entry.getValue().bitmap());
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+        }
+        for (Crime crime : unindexed) {
+            counts.merge(keyOf.apply(crime), 1, Integer::sum);
+        }
+        counts.remove(null);
+        return counts;
+    }
+    
+    // Largest count first, each key labelled the way its records spell it
+    private Map<String, Integer> byCount(Map<String, Integer> counts, HashMap<String, PostingList> index, Function<Crime, String> display) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries) {
+            PostingList postings = index.get(entry.getKey());
+            String label = postings != null ? display.apply(ordinals.get(postings.bitmap().first())).trim() : entry.getKey();
+            ordered.merge(label, entry.getValue(), Integer::sum);
+        }
+        return ordered;
+    }
+    
+    // The plan advancedSearch would use, without running it
+    public QueryPlan explainAdvancedSearch(String name, String city, String crimeType) {
+        return explainAdvancedSearch(name, city, crimeType, MatchMode.REGEX);
+    }
+    
+    public QueryPlan explainAdvancedSearch(String name, String city, String crimeType, MatchMode mode) {
+        QueryPlan plan = new QueryPlan();
+        planAdvancedSearch(name, city, crimeType, mode, plan);
+        return plan;
+    }
+    
+    private List<Criterion> planAdvancedSearch(String name, String city, String crimeType, MatchMode mode, QueryPlan plan) {
+        List<Criterion> criteria = new ArrayList<>();
+        boolean inMemory = crimeService.isLoadComplete();
+        synchronized (this) {
+            addCriterion(criteria, "name", name, mode, nameIndex, nameGrams, inMemory);
+            addCriterion(criteria, "city", city, mode, cityIndex, cityGrams, inMemory);
+            addCriterion(criteria, "crimeType", crimeType, mode, crimeTypeIndex, null, inMemory);
+        }
+        // Most selective index lookups first; scanned and database patterns last
+        criteria.sort(Comparator.comparingLong(c -> c.isIndexed() ? c.estimate : Long.MAX_VALUE));
+        for (Criterion criterion : criteria) {
+            plan.addStep(criterion.field, criterion.term, criterion.access, criterion.estimate);
+        }
+        if (!inMemory) {
+            plan.addNote("records still loading; every criterion goes to the database");
+        }
+        return criteria;
+    }
+    
+    private void addCriterion(List<Criterion> criteria, String field, String term, MatchMode mode,
+                              HashMap<String, PostingList> index, NGramIndex grams, boolean inMemory) {
+        if (term == null || term.trim().isEmpty()) {
+            return;
+        }
+        Criterion criterion = new Criterion(field, term.trim(), mode);
+        criteria.add(criterion);
+        
+        String pattern = criterion.term.toLowerCase();
+        boolean anchoredStart;
+        boolean anchoredEnd;
+        String literal;
+        if (mode == MatchMode.REGEX) {
+            // Validated up front, so a rejected pattern fails the search before anything runs
+            RegexGuard.compile(criterion.term);
+            anchoredStart = pattern.startsWith("^");
+            anchoredEnd = pattern.endsWith("$") && !pattern.endsWith("\\$") && pattern.length() > (anchoredStart ? 1 : 0);
+            literal = pattern.substring(anchoredStart ? 1 : 0, pattern.length() - (anchoredEnd ? 1 : 0));
+        } else {
+            anchoredStart = mode != MatchMode.CONTAINS;
+            anchoredEnd = mode == MatchMode.EXACT;
+            literal = pattern;
+        }
+        if (!inMemory || literal.isEmpty() || (mode == MatchMode.REGEX && !isLiteral(literal))) {
+            criterion.access = inMemory ? QueryPlan.Access.SCAN : QueryPlan.Access.DATABASE;
+            criterion.estimate = -1;
+            return;
+        }
+        
+        if (anchoredStart && anchoredEnd) {
+            criterion.access = QueryPlan.Access.EXACT;
+            if (index.containsKey(literal)) {
+                criterion.keys.add(literal);
+            }
+        } else {
+            List<String> containing;
+            if (grams != null) {
+                containing = grams.keysContaining(literal);
+            } else {
+                containing = new ArrayList<>();
+                for (String key : index.keySet()) {
+                    if (key.contains(literal)) {
+                        containing.add(key);
+                    }
+                }
+            }
+            for (String key : containing) {
+                if (!anchoredStart || key.startsWith(literal)) {
+                    criterion.keys.add(key);
+                }
+            }
+            criterion.access = anchoredStart ? QueryPlan.Access.PREFIX : QueryPlan.Access.CONTAINS;
+        }
+        // OR of the keys' bitmaps; a fresh bitmap, so it stays valid outside the lock
+        for (String key : criterion.keys) {
+            RoaringBitmap postings = index.get(key).bitmap();
+            criterion.matches = criterion.matches.isEmpty() ? postings.copy() : RoaringBitmap.or(criterion.matches, postings);
+        }
+        criterion.estimate = criterion.matches.cardinality();
+    }
+    
+    // Records matching every indexed criterion, or null when none of them is indexed
+    private synchronized List<Crime> intersectIndexed(List<Criterion> criteria, QueryPlan plan) {
+        RoaringBitmap matches = null;
+        int indexed = 0;
+        // Criteria are sorted smallest first, so intermediate results only shrink
+        for (Criterion criterion : criteria) {
+            if (criterion.isIndexed()) {
+                matches = matches == null ? criterion.matches : RoaringBitmap.and(matches, criterion.matches);
+                indexed++;
+            }
+        }
+        if (matches == null) {
+            return null;
+        }
+        List<Crime> candidates = ordinals.resolve(matches);
+        plan.addNote(indexed + " criteria intersected in memory: " + candidates.size() + " candidate(s)");
+        return candidates;
+    }
+    
+    private List<Crime> applyResidual(List<Criterion> criteria, List<Crime> candidates, QueryPlan plan) {
+        List<Criterion> residual = new ArrayList<>();
+        List<Criterion> scanned = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            if (criterion.access == QueryPlan.Access.DATABASE) {
+                residual.add(criterion);
+            } else if (criterion.access == QueryPlan.Access.SCAN) {
+                scanned.add(criterion);
+            }
+        }
+        
+        if (!scanned.isEmpty()) {
+            Predicate<Crime> predicate = scanPredicate(scanned);
+            if (candidates == null) {
+                plan.addNote("no index applies; every record scanned in memory");
+                candidates = scanner.scan(crimeService.getSnapshot(), predicate, "advanced search");
+            } else if (!candidates.isEmpty()) {
+                plan.addNote("residual patterns scanned over " + candidates.size() + " candidate(s)");
+                candidates = scanner.scan(candidates, predicate, "advanced search");
+            }
+        }
+        
+        if (candidates == null) {
+            plan.addNote("no index applies; all criteria pushed to the database");
+            List<Crime> results = new ArrayList<>();
+            for (Document doc : findInDatabase(databaseFilters(residual), hasUserRegex(residual))) {
+                results.add(CrimeDocumentMapper.toCrime(doc));
+            }
+            return results;
+        }
+        
+        // Once loaded every criterion is answered in memory; only a search made while loading
+        // has database criteria, and then nothing is indexed, so candidates was null above
+        return candidates;
+    }
+    
+    // Every pattern must find a match in its field; null fields never match, as in MongoDB
+    private static Predicate<Crime> scanPredicate(List<Criterion> criteria) {
+        List<Function<Crime, String>> fields = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            fields.add(fieldGetter(criterion.field));
+            patterns.add(RegexGuard.compile(criterion.term));
+        }
+        long deadline = scanDeadline();
+        return crime -> {
+            for (int i = 0; i < patterns.size(); i++) {
+                String value = fields.get(i).apply(crime);
+                if (value == null || !RegexGuard.find(patterns.get(i), value, deadline)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
+    private static Function<Crime, String> fieldGetter(String field) {
+        switch (field) {
+            case "city":
+                return Crime::getCity;
+            case "crimeType":
+                return Crime::getCrimeType;
+            case "name":
+            default:
+                return Crime::getName;
+        }
+    }
+    
+    private static List<Bson> databaseFilters(List<Criterion> criteria) {
+        List<Bson> filters = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            filters.add(databaseFilter(criterion.field, criterion.term, criterion.mode));
+        }
+        return filters;
+    }
+    
+    private static boolean hasUserRegex(List<Criterion> criteria) {
+        for (Criterion criterion : criteria) {
+            if (criterion.mode == MatchMode.REGEX) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isLiteral(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(text.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static final class Criterion {
+        private final String field;
+        private final String term;
+        private final MatchMode mode;
+        private final List<String> keys = new ArrayList<>();
+        private RoaringBitmap matches = new RoaringBitmap();
+        private QueryPlan.Access access;
+        private long estimate;
+        
+        private Criterion(String field, String term, MatchMode mode) {
+            this.field = field;
+            this.term = term;
+            this.mode = mode;
+        }
+        
+        private boolean isIndexed() {
+            return access != QueryPlan.Access.DATABASE && access != QueryPlan.Access.SCAN;
+        }
+    }
+    
     public void displaySearchResults(List<Crime> results, String searchTerm) {
         if (results.isEmpty()) {
             System.out.println("No records found for: " + searchTerm);
@@ -134,10 +1149,59 @@ public class SearchService {
     }
     
     public List<Crime> searchByDetails(String details) {
+        return searchByDetails(details, DEFAULT_DETAILS_RESULTS);
+    }
+    
+    // Best BM25 matches first; any stemmed query word may match
+    public List<Crime> searchByDetails(String details, int limit) {
         System.out.println("Searching in crime details: " + details);
-        return searchInDatabase("details", details);
+        if (!crimeService.isLoadComplete()) {
+            return searchInDatabase("details", details, MatchMode.CONTAINS);
+        }
+        List<Crime> results;
+        synchronized (this) {
+            results = detailsIndex.search(details, limit);
+        }
+        System.out.println("Found " + results.size() + " ranked match(es) in memory.");
+        return results;
     }
 
+    // Records whose details match the term in the given mode, newest first. No index covers
+    // substrings of free text, so once loaded this is a parallel scan of every record.
+    public List<Crime> searchByDetails(String details, MatchMode mode) {
+        System.out.println("Searching in crime details (" + mode + "): " + details);
+        Pattern pattern = mode == MatchMode.REGEX ? RegexGuard.compile(details) : null;
+        if (!crimeService.isLoadComplete()) {
+            return searchInDatabase("details", details, mode);
+        }
+        Predicate<Crime> predicate;
+        if (pattern != null) {
+            long deadline = scanDeadline();
+            predicate = crime -> crime.getDetails() != null && RegexGuard.find(pattern, crime.getDetails(), deadline);
+        } else {
+            String needle = details.toLowerCase();
+            predicate = crime -> matches(crime.getDetails(), needle, mode);
+        }
+        List<Crime> results = scanner.scan(crimeService.getSnapshot(), predicate, "details " + mode);
+        Collections.reverse(results);
+        return results;
+    }
+    
+    // Records matching an arbitrary predicate, for filters no index covers (negations, photo
+    // paths, ...); oldest first, evaluated in parallel over the current snapshot
+    public List<Crime> scan(Predicate<Crime> predicate, String label) {
+        return scanner.scan(crimeService.getSnapshot(), predicate, label);
+    }
+    
+    public CrimeScanner getScanner() {
+        return scanner;
+    }
+    
+    // A scan with a user regex gets the same time budget as the equivalent database query
+    private static long scanDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REGEX_MAX_TIME_MS);
+    }
+    
     public void performSearch(int searchType) {
         List<Crime> results = new ArrayList<>();
         String searchTerm = "";
@@ -242,14 +1306,11 @@ public class SearchService {
         }
     }
     
-    private List<Crime> searchInDatabase(String field, String value) {
+    private List<Crime> searchInDatabase(String field, String term, MatchMode mode) {
         try {
             List<Crime> results = new ArrayList<>();
-            Pattern pattern = Pattern.compile(value, Pattern.CASE_INSENSITIVE);
-            Bson filter = regex(field, pattern);
-            
-            for (Document doc : crimesCollection.find(filter)) {
-                results.add(documentToCrime(doc));
+            for (Document doc : findInDatabase(Collections.singletonList(databaseFilter(field, term, mode)), mode == MatchMode.REGEX)) {
+                results.add(CrimeDocumentMapper.toCrime(doc));
             }
             
             System.out.println("Database search found " + results.size() + " result(s).");
@@ -261,28 +1322,64 @@ public class SearchService {
         }
     }
     
-    private void buildSearchIndexes() {
+    // Exact and prefix terms become equality and range filters under the case-insensitive
+    // collation, so the collation indexes apply; contains is an escaped regex; regex mode
+    // must pass RegexGuard
+    private static Bson databaseFilter(String field, String term, MatchMode mode) {
+        switch (mode) {
+            case EXACT:
+                return eq(field, term);
+            case PREFIX:
+                return and(gte(field, term), lt(field, term + '\uffff'));
+            case CONTAINS:
+                return regex(field, escapeRegex(term), "i");
+            default:
+                return regex(field, RegexGuard.compile(term));
+        }
+    }
+    
+    private FindIterable<Document> findInDatabase(List<Bson> filters, boolean userRegex) {
+        FindIterable<Document> found = crimesCollection.find(and(filters)).collation(IndexManager.CASE_INSENSITIVE);
+        return userRegex ? found.maxTime(REGEX_MAX_TIME_MS, TimeUnit.MILLISECONDS) : found;
+    }
+    
+    private static String escapeRegex(String term) {
+        StringBuilder escaped = new StringBuilder(term.length() + 8);
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+    
+    private synchronized void buildSearchIndexes() {
         try {
             System.out.println("Building search indexes...");
             
+            resultCache.clear();
             nameIndex.clear();
             cityIndex.clear();
             crimeTypeIndex.clear();
+            dayIndex.clear();
+            hourIndex.clear();
+            ordinals.clear();
+            allRecords = new RoaringBitmap();
+            undatedRecords = new RoaringBitmap();
+            nameGrams.clear();
+            cityGrams.clear();
+            nameFuzzy.clear();
+            nameCompletions.clear();
+            cityCompletions.clear();
+            crimeTypeCompletions.clear();
+            namePhonetic.clear();
+            detailsIndex.clear();
             
-            for (Document doc : crimesCollection.find()) {
-                Crime crime = documentToCrime(doc);
-                
-                // Index by name
-                String name = crime.getName().toLowerCase();
-                nameIndex.computeIfAbsent(name, k -> new ArrayList<>()).add(crime);
-                
-                // Index by city
-                String city = crime.getCity().toLowerCase();
-                cityIndex.computeIfAbsent(city, k -> new ArrayList<>()).add(crime);
-                
-                // Index by crime type
-                String crimeType = crime.getCrimeType().toLowerCase();
-                crimeTypeIndex.computeIfAbsent(crimeType, k -> new ArrayList<>()).add(crime);
+            for (Crime crime : crimeService.getSnapshot().ascending()) {
+                // Index by name, city, crime type and day
+                addToIndexes(crime, ordinals.assign(crime));
             }
             
             System.out.println("Search indexes built successfully!");
@@ -299,23 +1396,6 @@ public class SearchService {
         buildSearchIndexes();
     }
     
-    private Crime documentToCrime(Document doc) {
-        Crime crime = new Crime();
-        crime.setId(doc.getObjectId("_id").toString());
-        crime.setName(doc.getString("name"));
-        crime.setCity(doc.getString("city"));
-        crime.setCrimeType(doc.getString("crimeType"));
-        crime.setDetails(doc.getString("details"));
-        crime.setPhotoPath(doc.getString("photoPath"));
-        
-        Date createdAt = doc.getDate("createdAt");
-        if (createdAt != null) {
-            crime.setCreatedAt(LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault()));
-        }
-        
-        return crime;
-    }
-    
     private void displayCrimeDetails(Crime crime) {
         System.out.println("   ID: " + crime.getId());
         System.out.println("   Name: " + crime.getName());
@@ -327,13 +1407,8 @@ public class SearchService {
         System.out.println("   " + "-".repeat(50));
     }
     
+    // Live record counts per crime type, largest first
     public Map<String, Integer> getCrimeStatistics() {
-        Map<String, Integer> stats = new HashMap<>();
-        
-        for (Map.Entry<String, List<Crime>> entry : crimeTypeIndex.entrySet()) {
-            stats.put(entry.getKey(), entry.getValue().size());
-        }
-        
-        return stats;
+        return getFacets().getByCrimeType();
     }
 }
@@ -3,6 +3,7 @@ package com.crimemanagement.service;
 public class SharedServiceHolder {
     private static WebSocketService webSocketService;
     private static CrimeService crimeService;
+    private static SearchService searchService;
 
     public static void setWebSocketService(WebSocketService service) {
         webSocketService = service;
@@ -19,4 +20,13 @@ public class SharedServiceHolder {
     public static CrimeService getCrimeService() {
         return crimeService;
     }
+
+    // One SearchService per JVM, indexing the shared CrimeService's records;
+    // created on first use, once a CrimeService exists
+    public static synchronized SearchService getSearchService() {
+        if (searchService == null && crimeService != null) {
+            searchService = new SearchService(crimeService);
+        }
+        return searchService;
+    }
 }
\ No newline at end of file
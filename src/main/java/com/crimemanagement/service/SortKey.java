@@ -0,0 +1,52 @@
+package com.crimemanagement.service;
+
+import com.crimemanagement.model.Crime;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Order of a paged search. NEWEST and OLDEST follow the createdAt time buckets, so
+ * a page is produced without sorting every match; the field orders keep a bounded
+ * heap of the first offset + limit matches. RELEVANCE is the ranked order of a
+ * details search and means NEWEST for every other search type.
+ */
+public enum SortKey {
+    NEWEST,
+    OLDEST,
+    NAME,
+    CITY,
+    CRIME_TYPE,
+    RELEVANCE;
+
+    // Case-insensitive name as used by the web "sort" parameter; null or blank gives null
+    public static SortKey parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+
+    // Field orders break ties newest first; RELEVANCE has no record comparator
+    Comparator<Crime> comparator() {
+        Comparator<Crime> newest = CrimeSnapshot.ORDER.reversed();
+        switch (this) {
+            case NEWEST:
+                return newest;
+            case OLDEST:
+                return CrimeSnapshot.ORDER;
+            case NAME:
+                return Comparator.comparing(Crime::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(newest);
+            case CITY:
+                return Comparator.comparing(Crime::getCity, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(newest);
+            case CRIME_TYPE:
+                return Comparator.comparing(Crime::getCrimeType, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(newest);
+            default:
+                throw new IllegalStateException(this + " has no record order");
+        }
+    }
+}
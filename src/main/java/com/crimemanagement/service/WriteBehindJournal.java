@@ -0,0 +1,336 @@
+package com.crimemanagement.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence. Each mutation is appended to a local journal and
+ * fsync'd before the caller is acknowledged; a background flusher group-commits
+ * journaled mutations to MongoDB with ordered bulk writes. The journal is
+ * truncated once everything in it has reached the database, and whatever is
+ * left in it at startup is replayed. Every operation is idempotent (upsert by
+ * _id, $set, delete by _id), so replaying an entry that was already flushed is safe.
+ * An entry the server rejects outright (duplicate key, validation failure) or that
+ * cannot be read back is moved to a rejects file next to the journal, so it does not
+ * hold up the entries behind it.
+ */
+public class WriteBehindJournal {
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final MongoCollection<Document> crimesCollection;
+    private final Path journalPath;
+    private final Path rejectsPath;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final LinkedBlockingQueue<Document> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final Object journalLock = new Object();
+    private FileChannel channel;
+    private Thread flusherThread;
+    private volatile boolean running;
+
+    public WriteBehindJournal(MongoCollection<Document> crimesCollection) {
+        this(crimesCollection,
+                Paths.get(System.getProperty("crime.writeBehind.journal", "data/crime-journal.log")),
+                Integer.getInteger("crime.writeBehind.batchSize", 500),
+                Long.getLong("crime.writeBehind.flushIntervalMs", 200L));
+    }
+
+    public WriteBehindJournal(MongoCollection<Document> crimesCollection, Path journalPath, int batchSize, long flushIntervalMs) {
+        this.crimesCollection = crimesCollection;
+        this.journalPath = journalPath;
+        this.rejectsPath = journalPath.resolveSibling(journalPath.getFileName() + ".rejected");
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("crime.writeBehind.enabled");
+    }
+
+    // Replays anything a previous run left unflushed, then starts the background flusher
+    public void open() throws IOException {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        replay();
+
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "crime-write-behind");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+        System.out.println("Write-behind mode enabled (journal: " + journalPath + ").");
+    }
+
+    public void appendInsert(Document crimeDoc) {
+        append(new Document("op", "insert").append("doc", crimeDoc));
+    }
+
+    // One journal write and fsync for the whole batch
+    public void appendInserts(List<Document> crimeDocs) {
+        List<Document> entries = new ArrayList<>(crimeDocs.size());
+        for (Document crimeDoc : crimeDocs) {
+            entries.add(new Document("op", "insert").append("doc", crimeDoc));
+        }
+        append(entries);
+    }
+
+    public void appendUpdate(String crimeId, Document fields) {
+        append(new Document("op", "update").append("id", crimeId).append("doc", fields));
+    }
+
+    public void appendDelete(String crimeId) {
+        append(new Document("op", "delete").append("id", crimeId));
+    }
+
+    private void append(Document entry) {
+        append(Collections.singletonList(entry));
+    }
+
+    private void append(List<Document> entries) {
+        StringBuilder lines = new StringBuilder();
+        for (Document entry : entries) {
+            lines.append(entry.toJson()).append('\n');
+        }
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        synchronized (journalLock) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write to journal " + journalPath, e);
+            }
+            appendedCount.addAndGet(entries.size());
+            // Queued under the same lock, so the flusher sees entries in journal order
+            pending.addAll(entries);
+        }
+    }
+
+    private void flushLoop() {
+        List<Document> batch = new ArrayList<>(batchSize);
+        long backoff = flushIntervalMs;
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Document first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+
+                int size = batch.size();
+                try {
+                    commit(batch);
+                } finally {
+                    // Whatever commit took off the batch is in the database or the rejects file
+                    flushedCount.addAndGet(size - batch.size());
+                }
+                backoff = flushIntervalMs;
+                truncateIfDrained();
+
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            } catch (Exception e) {
+                // Transient failure: keep the rest of the batch and retry; it is still safe in the journal
+                System.err.println("Write-behind flush failed (" + batch.size() + " pending): " + e.getMessage());
+                if (!running) {
+                    return;
+                }
+                sleepQuietly(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    // Writes the entries in journal order, removing each from the list once it is written or
+    // rejected. A rejected entry can never succeed, so it goes to the rejects file and the
+    // entries after it are written. Any other failure is thrown with the unwritten entries left.
+    private void commit(List<Document> entries) throws IOException {
+        while (!entries.isEmpty()) {
+            List<WriteModel<Document>> writes = new ArrayList<>(entries.size());
+            int rejected = -1;
+            String reason = null;
+            for (Document entry : entries) {
+                try {
+                    writes.add(toWriteModel(entry));
+                } catch (RuntimeException e) {
+                    // Malformed entry: write the ones before it, then reject it
+                    rejected = writes.size();
+                    reason = e.toString();
+                    break;
+                }
+            }
+            if (!writes.isEmpty()) {
+                try {
+                    // Ordered, so several mutations of the same record land in journal order
+                    crimesCollection.bulkWrite(writes, new BulkWriteOptions().ordered(true));
+                } catch (MongoBulkWriteException e) {
+                    if (e.getWriteErrors().isEmpty()) {
+                        throw e; // Only a write concern error; worth retrying
+                    }
+                    // An ordered bulk write stops at its first error; everything before it was applied
+                    BulkWriteError error = e.getWriteErrors().get(0);
+                    rejected = error.getIndex();
+                    reason = error.getMessage();
+                }
+            }
+            if (rejected < 0) {
+                entries.clear();
+                return;
+            }
+            reject(entries.get(rejected), reason);
+            entries.subList(0, rejected + 1).clear();
+        }
+    }
+
+    private void reject(Document entry, String reason) throws IOException {
+        System.err.println("Write-behind entry rejected, moved to " + rejectsPath + ": " + reason);
+        byte[] line = (new Document("reason", reason).append("entry", entry).toJson() + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(rejectsPath, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        rejectedCount.incrementAndGet();
+    }
+
+    private static WriteModel<Document> toWriteModel(Document entry) {
+        String op = entry.getString("op");
+        Document doc = entry.get("doc", Document.class);
+        switch (op) {
+            case "insert":
+                return new ReplaceOneModel<>(Filters.eq("_id", doc.getObjectId("_id")), doc,
+                        new ReplaceOptions().upsert(true));
+            case "update":
+                return new UpdateOneModel<>(Filters.eq("_id", new ObjectId(entry.getString("id"))),
+                        new Document("$set", doc));
+            case "delete":
+                return new DeleteOneModel<>(Filters.eq("_id", new ObjectId(entry.getString("id"))));
+            default:
+                throw new IllegalArgumentException("Unknown journal operation: " + op);
+        }
+    }
+
+    private void truncateIfDrained() throws IOException {
+        synchronized (journalLock) {
+            if (flushedCount.get() == appendedCount.get() && channel.size() > 0) {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(journalPath) || Files.size(journalPath) == 0) {
+            return;
+        }
+
+        int replayed = 0;
+        long rejectedBefore = rejectedCount.get();
+        List<Document> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    batch.add(Document.parse(line));
+                } catch (Exception e) {
+                    // A torn final line from a crash mid-append was never acknowledged
+                    System.err.println("Skipping unreadable journal entry: " + e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    replayed += batch.size();
+                    commit(batch);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            replayed += batch.size();
+            commit(batch);
+        }
+        replayed -= (int) (rejectedCount.get() - rejectedBefore);
+
+        try (FileChannel truncating = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+            truncating.truncate(0);
+            truncating.force(true);
+        }
+        System.out.println("Replayed " + replayed + " unflushed journal entr" + (replayed == 1 ? "y" : "ies") + " to the database.");
+    }
+
+    // Lets the flusher drain everything still pending, then closes the journal
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (flusherThread != null) {
+            try {
+                flusherThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (journalLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getPendingCount() {
+        return appendedCount.get() - flushedCount.get();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    // Entries moved to the rejects file instead of the database
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+        }
+    }
+}
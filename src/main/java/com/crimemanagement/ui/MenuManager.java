@@ -1,9 +1,13 @@
 package com.crimemanagement.ui;
 
 import com.crimemanagement.model.Crime;
+import com.crimemanagement.model.CrimePage;
 import com.crimemanagement.service.*;
 import com.crimemanagement.util.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
@@ -117,10 +121,12 @@ public class MenuManager {
         System.out.println("3. Add Crime Record");
         System.out.println("4. Edit Crime Record");
         System.out.println("5. Delete Crime Record");
-        System.out.println("6. Crime Record View (Web Interface)");
-        System.out.println("7. Logout");
+        System.out.println("6. Import Crime Records (CSV/JSONL)");
+        System.out.println("7. View Crime Records (Console)");
+        System.out.println("8. Crime Record View (Web Interface)");
+        System.out.println("9. Logout");
         
-        int choice = InputValidator.getValidInt("Select option (1-7): ", 1, 7);
+        int choice = InputValidator.getValidInt("Select option (1-9): ", 1, 9);
         handleAdminChoice(choice);
     }
     
@@ -131,10 +137,11 @@ public class MenuManager {
         System.out.println("1. Add Crime Record");
         System.out.println("2. Edit Crime Record");
         System.out.println("3. Delete Crime Record");
-        System.out.println("4. Crime Record View (Web Interface)");
-        System.out.println("5. Logout");
+        System.out.println("4. View Crime Records (Console)");
+        System.out.println("5. Crime Record View (Web Interface)");
+        System.out.println("6. Logout");
         
-        int choice = InputValidator.getValidInt("Select option (1-5): ", 1, 5);
+        int choice = InputValidator.getValidInt("Select option (1-6): ", 1, 6);
         handleSpecialUserChoice(choice);
     }
     
@@ -142,10 +149,11 @@ public class MenuManager {
         System.out.println("\n=== NORMAL USER MENU ===");
         System.out.println("Current user: " + authService.getCurrentUser().getEmail() + " (Normal User)");
         System.out.println();
-        System.out.println("1. Crime Record View (Web Interface)");
-        System.out.println("2. Logout");
+        System.out.println("1. View Crime Records (Console)");
+        System.out.println("2. Crime Record View (Web Interface)");
+        System.out.println("3. Logout");
         
-        int choice = InputValidator.getValidInt("Select option (1-2): ", 1, 2);
+        int choice = InputValidator.getValidInt("Select option (1-3): ", 1, 3);
         handleNormalUserChoice(choice);
     }
     
@@ -167,14 +175,20 @@ public class MenuManager {
                 deleteCrimeRecord();
                 break;
             case 6:
-                launchWebInterface();
+                importCrimeRecords();
                 break;
             case 7:
+                displayAllCrimes();
+                break;
+            case 8:
+                launchWebInterface();
+                break;
+            case 9:
                 authService.logout();
                 break;
         }
         
-        if (choice != 7) {
+        if (choice != 9) {
             pauseForUser();
         }
     }
@@ -191,14 +205,17 @@ public class MenuManager {
                 deleteCrimeRecord();
                 break;
             case 4:
-                launchWebInterface();
+                displayAllCrimes();
                 break;
             case 5:
+                launchWebInterface();
+                break;
+            case 6:
                 authService.logout();
                 break;
         }
         
-        if (choice != 5) {
+        if (choice != 6) {
             pauseForUser();
         }
     }
@@ -206,14 +223,17 @@ public class MenuManager {
     private void handleNormalUserChoice(int choice) {
         switch (choice) {
             case 1:
-                launchWebInterface();
+                displayAllCrimes();
                 break;
             case 2:
+                launchWebInterface();
+                break;
+            case 3:
                 authService.logout();
                 break;
         }
         
-        if (choice != 2) {
+        if (choice != 3) {
             pauseForUser();
         }
     }
@@ -297,6 +317,27 @@ public class MenuManager {
         }
     }
     
+    // Latest first, ten at a time, following the page cursor while the user asks for more
+    private void displayAllCrimes() {
+        if (crimeService.getTotalCrimeCount() == 0) {
+            System.out.println("No crime records found.");
+            return;
+        }
+        
+        System.out.println("\n=== CRIME RECORDS (Latest First) ===");
+        int count = 1;
+        String cursor = null;
+        do {
+            CrimePage page = crimeService.getCrimesPage(cursor, 10);
+            for (Crime crime : page.getCrimes()) {
+                System.out.println("\n" + count + ". Crime Record:");
+                crimeService.displayCrimeDetails(crime);
+                count++;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null && InputValidator.getYesNoConfirmation("Show more records?"));
+    }
+    
     private void addCrimeRecord() {
         if (!authService.hasPermission("ADD_CRIME")) {
             System.out.println("Access denied. Admin or Special User privileges required.");
@@ -354,7 +395,30 @@ public class MenuManager {
         }
     }
     
-
+    private void importCrimeRecords() {
+        if (!authService.hasPermission("IMPORT_CRIMES")) {
+            System.out.println("Access denied. Admin privileges required.");
+            return;
+        }
+        
+        System.out.println("\n=== IMPORT CRIME RECORDS ===");
+        System.out.println("CSV files need a header row: name,city,crimeType,details,photoPath[,createdAt]");
+        System.out.println("JSONL files (.jsonl) hold one JSON object per line with the same fields.");
+        String filePath = InputValidator.getValidString("Enter file path: ", false);
+        
+        Path path = Paths.get(filePath);
+        if (!Files.isRegularFile(path)) {
+            System.out.println("File not found: " + filePath);
+            return;
+        }
+        
+        try {
+            CrimeImporter.ImportSummary summary = new CrimeImporter(crimeService).importFile(path);
+            System.out.println("Import finished. " + summary);
+        } catch (Exception e) {
+            System.err.println("Error importing crime records: " + e.getMessage());
+        }
+    }
     
     private void pauseForUser() {
         try {
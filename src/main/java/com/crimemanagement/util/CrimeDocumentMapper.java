@@ -0,0 +1,41 @@
+package com.crimemanagement.util;
+
+import com.crimemanagement.model.Crime;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.Date;
+
+public class CrimeDocumentMapper {
+
+    // Only the fields a Crime is built from; keeps unrelated payload off the wire
+    public static final Bson CRIME_PROJECTION = Projections.include(
+            "name", "city", "crimeType", "details", "photoPath", "createdAt");
+
+    public static Crime toCrime(Document doc) {
+        Crime crime = new Crime();
+        crime.setObjectId(doc.getObjectId("_id"));
+        crime.setName(doc.getString("name"));
+        crime.setCity(doc.getString("city"));
+        crime.setCrimeType(doc.getString("crimeType"));
+        crime.setDetails(doc.getString("details"));
+        crime.setPhotoPath(doc.getString("photoPath"));
+
+        Date createdAt = doc.getDate("createdAt");
+        if (createdAt != null) {
+            crime.setCreatedAtMillis(createdAt.getTime());
+        }
+
+        return crime;
+    }
+
+    public static Document toDocument(Crime crime) {
+        return new Document("name", crime.getName())
+                .append("city", crime.getCity())
+                .append("crimeType", crime.getCrimeType())
+                .append("details", crime.getDetails())
+                .append("photoPath", crime.getPhotoPath())
+                .append("createdAt", new Date(crime.getCreatedAtMillis()));
+    }
+}
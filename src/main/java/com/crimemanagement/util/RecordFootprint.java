@@ -0,0 +1,90 @@
+package com.crimemanagement.util;
+
+import com.crimemanagement.model.Crime;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Rough heap-per-record comparison between the compact Crime layout and the
+// previous all-objects layout (hex id String, LocalDateTime, String city / type
+// per record, as the database driver hands them out).
+// Run: java -cp <classpath> com.crimemanagement.util.RecordFootprint [records]
+public class RecordFootprint {
+    private static final String[] CITIES = {"Chennai", "Coimbatore", "Madurai", "Salem", "Tiruchirappalli", "Vellore"};
+    private static final String[] TYPES = {"Theft", "Robbery", "Assault", "Fraud", "Burglary", "Vandalism"};
+    
+    // The field layout Crime had before it was made compact
+    private static class LegacyCrime {
+        String id;
+        String name;
+        String city;
+        String crimeType;
+        String details;
+        String photoPath;
+        LocalDateTime createdAt;
+    }
+    
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        
+        long legacy = measure(records, true);
+        long compact = measure(records, false);
+        
+        System.out.println("Records measured:   " + records);
+        System.out.println("Legacy layout:      " + legacy + " bytes/record");
+        System.out.println("Compact layout:     " + compact + " bytes/record");
+        if (legacy > 0) {
+            System.out.println("Saving:             " + (legacy - compact) + " bytes/record ("
+                    + ((legacy - compact) * 100 / legacy) + "%)");
+        }
+    }
+    
+    // Name, details and photo path are the same in both layouts, so they are left
+    // out of the measurement; only the fields whose encoding changed are counted
+    private static long measure(int records, boolean legacy) {
+        List<Object> keep = new ArrayList<>(records);
+        long before = usedHeap();
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < records; i++) {
+            // new String(...) mimics the driver decoding a fresh String per document
+            String id = new ObjectId().toHexString();
+            String city = new String(CITIES[i % CITIES.length]);
+            String type = new String(TYPES[i % TYPES.length]);
+            LocalDateTime createdAt = base.minusSeconds(i);
+            if (legacy) {
+                LegacyCrime crime = new LegacyCrime();
+                crime.id = id;
+                crime.city = city;
+                crime.crimeType = type;
+                crime.createdAt = createdAt;
+                keep.add(crime);
+            } else {
+                Crime crime = new Crime();
+                crime.setId(id);
+                crime.setCity(city);
+                crime.setCrimeType(type);
+                crime.setCreatedAt(createdAt);
+                keep.add(crime);
+            }
+        }
+        long after = usedHeap();
+        // Touch the list after measuring so the records stay reachable until then
+        return keep.isEmpty() ? 0 : (after - before) / records;
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,140 @@
+package com.crimemanagement.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+// Admits user-supplied regular expressions only when they cannot backtrack
+// catastrophically: bounded length and quantifier count, no backreferences, and no
+// repeated group that itself repeats or alternates, as in (a+)+ or (a|aa)*. Matching
+// in memory is also cut off at a deadline.
+public class RegexGuard {
+    public static final int MAX_LENGTH = Integer.getInteger("crime.search.regexMaxLength", 200);
+    public static final long TIMEOUT_MS = Long.getLong("crime.search.regexTimeoutMs", 200L);
+    private static final int MAX_QUANTIFIERS = 16;
+
+    // Case-insensitive pattern; throws IllegalArgumentException if it is invalid or too risky
+    public static Pattern compile(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            throw new IllegalArgumentException("Regular expression is empty");
+        }
+        if (regex.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Regular expression longer than " + MAX_LENGTH + " characters");
+        }
+        checkStructure(regex);
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+    }
+
+    private static void checkStructure(String regex) {
+        // One frame per open group: {contains a quantifier, contains an alternation}
+        Deque<boolean[]> groups = new ArrayDeque<>();
+        groups.push(new boolean[2]);
+        int quantifiers = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 < regex.length()) {
+                        char next = regex.charAt(i + 1);
+                        if ((next >= '1' && next <= '9') || next == 'k') {
+                            throw new IllegalArgumentException("Backreferences are not allowed");
+                        }
+                    }
+                    i++;
+                    break;
+                case '[':
+                    // Skip the character class; quantifier characters inside it are literal
+                    i++;
+                    if (i < regex.length() && regex.charAt(i) == '^') {
+                        i++;
+                    }
+                    if (i < regex.length() && regex.charAt(i) == ']') {
+                        i++;
+                    }
+                    while (i < regex.length() && regex.charAt(i) != ']') {
+                        if (regex.charAt(i) == '\\') {
+                            i++;
+                        }
+                        i++;
+                    }
+                    break;
+                case '(':
+                    groups.push(new boolean[2]);
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == '?') {
+                        i++;
+                    }
+                    break;
+                case ')':
+                    if (groups.size() == 1) {
+                        break;
+                    }
+                    boolean[] group = groups.pop();
+                    boolean repeated = i + 1 < regex.length() && "*+{".indexOf(regex.charAt(i + 1)) >= 0;
+                    if (repeated && (group[0] || group[1])) {
+                        throw new IllegalArgumentException("Nested or alternating repetition is not allowed");
+                    }
+                    groups.peek()[0] |= group[0] || repeated;
+                    break;
+                case '|':
+                    groups.peek()[1] = true;
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    if (++quantifiers > MAX_QUANTIFIERS) {
+                        throw new IllegalArgumentException("More than " + MAX_QUANTIFIERS + " quantifiers");
+                    }
+                    groups.peek()[0] = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Deadline for a match started now
+    public static long deadline() {
+        return System.nanoTime() + TIMEOUT_MS * 1_000_000L;
+    }
+
+    // Pattern.find that gives up with an IllegalArgumentException once the deadline passes
+    public static boolean find(Pattern pattern, String text, long deadlineNanos) {
+        return pattern.matcher(new DeadlineCharSequence(text, deadlineNanos)).find();
+    }
+
+    // The regex engine reads its input through charAt, so checking the clock there bounds any backtracking
+    private static final class DeadlineCharSequence implements CharSequence {
+        private final String text;
+        private final long deadlineNanos;
+        private int reads;
+
+        DeadlineCharSequence(String text, long deadlineNanos) {
+            this.text = text;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & 1023) == 0 && System.nanoTime() > deadlineNanos) {
+                throw new IllegalArgumentException("Regular expression timed out");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.substring(start, end), deadlineNanos);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.crimemanagement.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps repeated strings (cities, crime types) to dense int codes so each record
+// stores a 4-byte code instead of its own String copy. Codes are never reused,
+// and a code's value never changes, so readers need no locking.
+public class StringDictionary {
+    private static final StringDictionary SHARED = new StringDictionary();
+    
+    public static final int NONE = -1; // code for null
+    
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+    
+    // The dictionary used by every Crime, and therefore by CrimeService and SearchService alike
+    public static StringDictionary shared() {
+        return SHARED;
+    }
+    
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+    
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        // Publish the array before the code so a reader never sees a code it cannot decode
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+    
+    public String decode(int code) {
+        return code == NONE ? null : values[code];
+    }
+    
+    // Returns NONE without adding the value when it has never been encoded
+    public int lookup(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : NONE;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+}